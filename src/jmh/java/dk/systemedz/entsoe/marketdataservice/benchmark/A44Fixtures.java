@@ -0,0 +1,78 @@
+package dk.systemedz.entsoe.marketdataservice.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * ENTSO-E A44 (day-ahead prices) documents for the benchmarks. The day and multi-TimeSeries documents are the
+ * recorded fixtures of the tests, the month and year documents are built in the same layout with one
+ * TimeSeries of hourly prices per day, like ENTSO-E answers longer periods.
+ */
+final class A44Fixtures {
+
+    private static final Instant YEAR_START = Instant.parse("2021-12-31T23:00:00Z");
+
+    private A44Fixtures() {}
+
+    static byte[] load(String fixture) {
+        return switch (fixture) {
+            case "day" -> readResource("/entsoe/fixtures/a44-day.xml");
+            case "multi" -> readResource("/entsoe/fixtures/a44-multi-timeseries.xml");
+            case "month" -> generate(31);
+            case "year" -> generate(365);
+            default -> throw new IllegalArgumentException("Unknown fixture " + fixture);
+        };
+    }
+
+    private static byte[] readResource(String name) {
+        try (InputStream in = Objects.requireNonNull(A44Fixtures.class.getResourceAsStream(name), name)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] generate(int days) {
+        Instant end = YEAR_START.plus(days, ChronoUnit.DAYS);
+        StringBuilder xml = new StringBuilder(days * 24 * 96)
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<Publication_MarketDocument xmlns=\"urn:iec62325.351:tc57wg16:451-3:publicationdocument:7:0\">\n")
+                .append("\t<mRID>benchmark</mRID>\n\t<revisionNumber>1</revisionNumber>\n\t<type>A44</type>\n")
+                .append("\t<createdDateTime>2022-10-16T09:12:41Z</createdDateTime>\n")
+                .append("\t<period.timeInterval>\n\t\t<start>").append(formatTime(YEAR_START)).append("</start>\n")
+                .append("\t\t<end>").append(formatTime(end)).append("</end>\n\t</period.timeInterval>\n");
+
+        for (int day = 0; day < days; day++) {
+            Instant dayStart = YEAR_START.plus(day, ChronoUnit.DAYS);
+            xml.append("\t<TimeSeries>\n\t\t<mRID>").append(day + 1).append("</mRID>\n")
+                    .append("\t\t<businessType>A62</businessType>\n")
+                    .append("\t\t<in_Domain.mRID codingScheme=\"A01\">10YDK-1--------W</in_Domain.mRID>\n")
+                    .append("\t\t<out_Domain.mRID codingScheme=\"A01\">10YDK-1--------W</out_Domain.mRID>\n")
+                    .append("\t\t<currency_Unit.name>EUR</currency_Unit.name>\n")
+                    .append("\t\t<price_Measure_Unit.name>MWH</price_Measure_Unit.name>\n")
+                    .append("\t\t<curveType>A01</curveType>\n\t\t<Period>\n\t\t\t<timeInterval>\n")
+                    .append("\t\t\t\t<start>").append(formatTime(dayStart)).append("</start>\n")
+                    .append("\t\t\t\t<end>").append(formatTime(dayStart.plus(1, ChronoUnit.DAYS))).append("</end>\n")
+                    .append("\t\t\t</timeInterval>\n\t\t\t<resolution>PT60M</resolution>\n");
+            for (int hour = 0; hour < 24; hour++) {
+                double price = 150 + 100 * Math.sin((hour - 6) / 24.0 * 2 * Math.PI) + day % 30;
+                xml.append("\t\t\t<Point>\n\t\t\t\t<position>").append(hour + 1).append("</position>\n")
+                        .append("\t\t\t\t<price.amount>").append(Math.round(price * 100) / 100.0).append("</price.amount>\n")
+                        .append("\t\t\t</Point>\n");
+            }
+            xml.append("\t\t</Period>\n\t</TimeSeries>\n");
+        }
+        return xml.append("</Publication_MarketDocument>\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ENTSO-E writes the period times without seconds, e.g. 2022-10-15T22:00Z
+    private static String formatTime(Instant instant) {
+        String time = instant.toString();
+        return time.substring(0, time.length() - 4) + "Z";
+    }
+}
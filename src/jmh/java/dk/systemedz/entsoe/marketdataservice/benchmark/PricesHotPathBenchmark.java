@@ -0,0 +1,110 @@
+package dk.systemedz.entsoe.marketdataservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import dk.systemedz.entsoe.marketdataservice.api.dto.PricesResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.mappers.DtoMapper;
+import dk.systemedz.entsoe.marketdataservice.api.mappers.DtoMapperImpl;
+import dk.systemedz.entsoe.marketdataservice.api.writers.StreamingPricesResponse;
+import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.TimeInterval;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.infrastructure.parser.PublicationMarketDocumentParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the steps of a price request separately and end-to-end: parsing the ENTSO-E XML, creating the
+ * MarketDocument, mapping it to the DTO and serializing it (mapped DTO and streaming serializer).
+ * Run with ./gradlew jmh, the GC profiler reports the allocation rate of every benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PricesHotPathBenchmark {
+
+    @Param({ "day", "multi", "month", "year" })
+    public String fixture;
+
+    private final PublicationMarketDocumentParser parser = new PublicationMarketDocumentParser();
+    private final DtoMapper mapper = new DtoMapperImpl();
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final OutputStream out = OutputStream.nullOutputStream();
+
+    private byte[] xml;
+    private List<PriceSeries> days;
+    private MarketDocument marketDocument;
+    private PricesResponseDto pricesResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        xml = A44Fixtures.load(fixture);
+        days = parser.parse(new ByteArrayInputStream(xml));
+        marketDocument = createMarketDocument(days);
+        pricesResponse = mapper.mapPricesResponse(marketDocument);
+    }
+
+    @Benchmark
+    public List<PriceSeries> parse() throws IOException {
+        return parser.parse(new ByteArrayInputStream(xml));
+    }
+
+    @Benchmark
+    public MarketDocument createMarketDocument() {
+        return createMarketDocument(days);
+    }
+
+    @Benchmark
+    public PricesResponseDto mapPricesResponse() {
+        return mapper.mapPricesResponse(marketDocument);
+    }
+
+    @Benchmark
+    public void serializePricesResponse() throws IOException {
+        objectMapper.writeValue(out, pricesResponse);
+    }
+
+    @Benchmark
+    public void serializeStreamingPricesResponse() throws IOException {
+        objectMapper.writeValue(out, new StreamingPricesResponse(marketDocument));
+    }
+
+    @Benchmark
+    public void endToEndMapped() throws IOException {
+        MarketDocument document = createMarketDocument(parser.parse(new ByteArrayInputStream(xml)));
+        objectMapper.writeValue(out, mapper.mapPricesResponse(document));
+    }
+
+    @Benchmark
+    public void endToEndStreaming() throws IOException {
+        MarketDocument document = createMarketDocument(parser.parse(new ByteArrayInputStream(xml)));
+        objectMapper.writeValue(out, new StreamingPricesResponse(document));
+    }
+
+    // Same document as EntsoeService creates from the cached days
+    private static MarketDocument createMarketDocument(List<PriceSeries> days) {
+        return MarketDocument.builder()
+                .createdDateTime(LocalDateTime.now())
+                .area(AreaCode.DK1)
+                .timeInterval(TimeInterval.builder()
+                        .intervalStart(days.get(0).getCurrentDateInterval().getIntervalStart())
+                        .intervalEnd(days.get(days.size()-1).getCurrentDateInterval().getIntervalEnd())
+                        .build())
+                .intervalDays(days)
+                .build();
+    }
+}
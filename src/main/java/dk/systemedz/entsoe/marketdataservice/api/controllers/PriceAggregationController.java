@@ -0,0 +1,115 @@
+package dk.systemedz.entsoe.marketdataservice.api.controllers;
+
+import dk.systemedz.entsoe.marketdataservice.api.dto.AggregatedPricesResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.AggregationGranularityDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.AreaCodeDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.ErrorMessageDetailDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.RollingStatisticsResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.mappers.DtoMapper;
+import dk.systemedz.entsoe.marketdataservice.api.rest.PriceAggregationControllerApiDelegate;
+import dk.systemedz.entsoe.marketdataservice.domain.models.AggregatedMarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.RollingStatistics;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AggregationGranularity;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.QueryType;
+import dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallException;
+import dk.systemedz.entsoe.marketdataservice.service.PriceAggregationService;
+import dk.systemedz.entsoe.marketdataservice.service.RollingStatisticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateDateTimeRange;
+import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateEntsoeSecurityTokenAndAreaCode;
+import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateYearMonthWeek;
+import static dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallExceptionUtils.toRestCallException;
+import static java.util.Objects.isNull;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.springframework.http.ResponseEntity.ok;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PriceAggregationController implements PriceAggregationControllerApiDelegate {
+
+    private final PriceAggregationService service;
+    private final RollingStatisticsService rollingStatisticsService;
+    private final DtoMapper mapper;
+
+    @Override
+    public CompletableFuture<ResponseEntity<AggregatedPricesResponseDto>> getAggregatedPrices(AreaCodeDto areaCode, AggregationGranularityDto granularity, String from, String to,
+                                                                           Integer year, List<Integer> percentiles, String entsoeSecurityToken, String securityToken) throws Exception {
+        if(isBlank(entsoeSecurityToken))
+            entsoeSecurityToken = securityToken;
+
+        List<ErrorMessageDetailDto> details = new ArrayList<>(validateEntsoeSecurityTokenAndAreaCode(entsoeSecurityToken, areaCode));
+        Map<String, String> params = new HashMap<>();
+        QueryType queryType;
+
+        if(isNotBlank(from)) {
+            if(isBlank(to))
+                to = LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
+
+            details.addAll(validateDateTimeRange(from, to));
+            if(details.isEmpty()) {
+                params.put("from", from.trim().substring(0,8));
+                params.put("to", to.trim().substring(0,8));
+            }
+            queryType = QueryType.DATETIME;
+        } else {
+            if(isNull(year))
+                year = Calendar.getInstance().get(Calendar.YEAR);
+
+            details.addAll(validateYearMonthWeek(year, null, null));
+            params.put("year", year.toString());
+            queryType = QueryType.FIXED;
+        }
+
+        if(!details.isEmpty())
+            throw new RestCallException("Invalid parameters provided. See Details for more information.", details, HttpStatus.BAD_REQUEST);
+
+        CompletableFuture<AggregatedMarketDocument> prices = getAggregatedPrices(entsoeSecurityToken, areaCode, granularity, params, queryType, percentiles);
+        return prices.thenApply(aggregatedPrices -> ok(mapper.mapAggregatedPricesResponse(aggregatedPrices)));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<RollingStatisticsResponseDto>> getRollingStatistics(AreaCodeDto areaCode, Integer window, String from, String to,
+                                                                             String entsoeSecurityToken, String securityToken) throws Exception {
+        if(isBlank(entsoeSecurityToken))
+            entsoeSecurityToken = securityToken;
+
+        if(isBlank(to))
+            to = LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
+        if(isBlank(from))
+            from = LocalDate.now().minusDays(29).format(DateTimeFormatter.BASIC_ISO_DATE);
+
+        List<ErrorMessageDetailDto> details = new ArrayList<>(validateEntsoeSecurityTokenAndAreaCode(entsoeSecurityToken, areaCode));
+        details.addAll(validateDateTimeRange(from, to));
+        if(!details.isEmpty())
+            throw new RestCallException("Invalid parameters provided. See Details for more information.", details, HttpStatus.BAD_REQUEST);
+
+        LocalDate firstDay = LocalDate.parse(from.trim().substring(0,8), DateTimeFormatter.BASIC_ISO_DATE);
+        LocalDate lastDay = LocalDate.parse(to.trim().substring(0,8), DateTimeFormatter.BASIC_ISO_DATE);
+        CompletableFuture<RollingStatistics> statistics = rollingStatisticsService.getRollingStatisticsAsync(entsoeSecurityToken.trim(),
+                AreaCode.valueOf(areaCode.name()).getAreaCode(), firstDay.isAfter(lastDay) ? lastDay : firstDay,
+                firstDay.isAfter(lastDay) ? firstDay : lastDay, window);
+        return statistics
+                .thenApply(rollingStatistics -> ok(mapper.mapRollingStatisticsResponse(rollingStatistics)))
+                .exceptionally(e -> { throw toRestCallException(e); });
+    }
+
+    private CompletableFuture<AggregatedMarketDocument> getAggregatedPrices(String entsoeSecurityToken, AreaCodeDto areaCode, AggregationGranularityDto granularity,
+                                                                            Map<String, String> params, QueryType queryType, List<Integer> percentiles) {
+        return service.getAggregatedPricesAsync(entsoeSecurityToken.trim(), AreaCode.valueOf(areaCode.name()).getAreaCode(),
+                        AggregationGranularity.valueOf(granularity.name()), params, queryType, percentiles)
+                .exceptionally(e -> { throw toRestCallException(e); });
+    }
+}
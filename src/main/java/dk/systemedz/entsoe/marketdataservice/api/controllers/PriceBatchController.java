@@ -0,0 +1,113 @@
+package dk.systemedz.entsoe.marketdataservice.api.controllers;
+
+import dk.systemedz.entsoe.marketdataservice.api.dto.AreaCodeDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.BatchPricesResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.ErrorMessageDetailDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.IntervalTypeDto;
+import dk.systemedz.entsoe.marketdataservice.api.rest.PriceBatchControllerApiDelegate;
+import dk.systemedz.entsoe.marketdataservice.api.writers.PricesResponseWriter;
+import dk.systemedz.entsoe.marketdataservice.domain.models.BatchMarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.QueryType;
+import dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallException;
+import dk.systemedz.entsoe.marketdataservice.service.PriceBatchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateDateTimeRange;
+import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateEntsoeSecurityTokenAndAreaCode;
+import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateInterval;
+import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateYearMonthWeek;
+import static dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallExceptionUtils.toRestCallException;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PriceBatchController implements PriceBatchControllerApiDelegate {
+
+    private final PriceBatchService service;
+    private final PricesResponseWriter responseWriter;
+
+    @Override
+    public CompletableFuture<ResponseEntity<BatchPricesResponseDto>> getPricesByAreas(List<AreaCodeDto> areaCodes, String from, String to, IntervalTypeDto intervalType, Integer interval,
+                                                                   Integer year, Integer month, Integer week, String entsoeSecurityToken, String securityToken) throws Exception {
+        if(isBlank(entsoeSecurityToken))
+            entsoeSecurityToken = securityToken;
+
+        List<ErrorMessageDetailDto> details = new ArrayList<>(validateSecurityTokenAndAreaCodes(entsoeSecurityToken, areaCodes));
+        Map<String, String> params = new HashMap<>();
+        QueryType queryType;
+
+        if(isNotBlank(from)) {
+            if(isBlank(to))
+                to = LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
+
+            details.addAll(validateDateTimeRange(from, to));
+            if(details.isEmpty()) {
+                params.put("from", from.trim().substring(0,8));
+                params.put("to", to.trim().substring(0,8));
+            }
+            queryType = QueryType.DATETIME;
+        } else if(nonNull(intervalType)) {
+            if(isNull(interval)) {
+                details.add(ErrorMessageDetailDto.builder()
+                        .field("interval")
+                        .message("You have provided an intervalType (" + intervalType.getValue().toLowerCase() + "), but no interval.")
+                        .build());
+            } else {
+                details.addAll(validateInterval(intervalType, interval));
+                params.put("intervalType", intervalType.name().toUpperCase(Locale.ROOT));
+                params.put("interval", String.valueOf(interval));
+            }
+            queryType = QueryType.INTERVAL;
+        } else {
+            if(isNull(year))
+                year = Calendar.getInstance().get(Calendar.YEAR);
+
+            details.addAll(validateYearMonthWeek(year, month, week));
+            params.put("year", year.toString());
+            if(nonNull(month))
+                params.put("month", month.toString());
+            else if(nonNull(week))
+                params.put("week", week.toString());
+            queryType = QueryType.FIXED;
+        }
+
+        if(!details.isEmpty())
+            throw new RestCallException("Invalid parameters provided. See Details for more information.", details, HttpStatus.BAD_REQUEST);
+
+        CompletableFuture<BatchMarketDocument> prices = getPricesByAreas(entsoeSecurityToken, areaCodes, params, queryType);
+        return responseWriter.writeBatch(prices);
+    }
+
+    private CompletableFuture<BatchMarketDocument> getPricesByAreas(String entsoeSecurityToken, List<AreaCodeDto> areaCodes, Map<String, String> params, QueryType queryType) {
+        List<AreaCode> areas = areaCodes.stream()
+                .map(areaCode -> AreaCode.valueOf(areaCode.name()))
+                .toList();
+
+        return service.getPricesFromEntsoeApiAsync(entsoeSecurityToken.trim(), areas, params, queryType)
+                .exceptionally(e -> { throw toRestCallException(e); });
+    }
+
+    private List<ErrorMessageDetailDto> validateSecurityTokenAndAreaCodes(String entsoeSecurityToken, List<AreaCodeDto> areaCodes) {
+        if(isNull(areaCodes) || areaCodes.isEmpty())
+            return validateEntsoeSecurityTokenAndAreaCode(entsoeSecurityToken, null);
+
+        return areaCodes.stream()
+                .flatMap(areaCode -> validateEntsoeSecurityTokenAndAreaCode(entsoeSecurityToken, areaCode).stream())
+                .distinct()
+                .toList();
+    }
+}
@@ -0,0 +1,87 @@
+package dk.systemedz.entsoe.marketdataservice.api.controllers;
+
+import dk.systemedz.entsoe.marketdataservice.api.dto.AreaCodeDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.ErrorMessageDetailDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.ExportFormatDto;
+import dk.systemedz.entsoe.marketdataservice.api.rest.PriceExportControllerApiDelegate;
+import dk.systemedz.entsoe.marketdataservice.api.writers.PriceExportResponse;
+import dk.systemedz.entsoe.marketdataservice.api.writers.PricesResponseWriter;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallException;
+import dk.systemedz.entsoe.marketdataservice.service.PriceExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateDateTimeRange;
+import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateEntsoeSecurityTokenAndAreaCode;
+import static java.util.Objects.isNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PriceExportController implements PriceExportControllerApiDelegate {
+
+    @Value("${entsoe.export.max-days:3660}")
+    private long maxDays;
+
+    private final PriceExportService service;
+    private final PricesResponseWriter responseWriter;
+
+    @Override
+    public CompletableFuture<ResponseEntity<String>> exportPrices(String from, String to, List<AreaCodeDto> areaCodes, ExportFormatDto format,
+                                               String entsoeSecurityToken, String securityToken) throws Exception {
+        if(isBlank(entsoeSecurityToken))
+            entsoeSecurityToken = securityToken;
+        if(isNull(format))
+            format = ExportFormatDto.CSV;
+
+        // Every area is validated before the stream starts, the export can only abort once the first row is written
+        List<ErrorMessageDetailDto> details = new ArrayList<>(validateSecurityTokenAndAreaCodes(entsoeSecurityToken, areaCodes));
+        details.addAll(validateDateTimeRange(from, to, maxDays));
+        if(!details.isEmpty())
+            throw new RestCallException("Invalid parameters provided. See Details for more information.", details, HttpStatus.BAD_REQUEST);
+
+        List<AreaCode> areas = isNull(areaCodes) || areaCodes.isEmpty() ?
+                Arrays.asList(AreaCode.values()) :
+                areaCodes.stream().distinct().map(areaCode -> AreaCode.valueOf(areaCode.name())).toList();
+
+        LocalDate firstDay = LocalDate.parse(from.trim().substring(0,8), DateTimeFormatter.BASIC_ISO_DATE);
+        LocalDate lastDay = LocalDate.parse(to.trim().substring(0,8), DateTimeFormatter.BASIC_ISO_DATE);
+        String token = entsoeSecurityToken.trim();
+
+        // The rows are read while the response is written, so errors after the first row can only abort the response
+        PriceExportResponse export = new PriceExportResponse(format, chunkConsumer -> service.export(token, areas,
+                firstDay.isAfter(lastDay) ? lastDay : firstDay, firstDay.isAfter(lastDay) ? firstDay : lastDay, chunkConsumer));
+        String fileName = "prices-%s-%s.%s".formatted(firstDay.format(DateTimeFormatter.BASIC_ISO_DATE),
+                lastDay.format(DateTimeFormatter.BASIC_ISO_DATE), format.name().toLowerCase(Locale.ROOT));
+        // Nothing has been read yet, the export is read by the PriceExportHttpMessageConverter as it writes the body
+        return completedFuture(responseWriter.writeExport(export, fileName));
+    }
+
+    private List<ErrorMessageDetailDto> validateSecurityTokenAndAreaCodes(String entsoeSecurityToken, List<AreaCodeDto> areaCodes) {
+        // No area codes export every area
+        List<AreaCodeDto> areas = isNull(areaCodes) || areaCodes.isEmpty() ?
+                Arrays.stream(AreaCode.values()).map(areaCode -> AreaCodeDto.valueOf(areaCode.name())).toList() :
+                areaCodes;
+
+        return areas.stream()
+                .distinct()
+                .flatMap(areaCode -> validateEntsoeSecurityTokenAndAreaCode(entsoeSecurityToken, areaCode).stream())
+                .distinct()
+                .toList();
+    }
+}
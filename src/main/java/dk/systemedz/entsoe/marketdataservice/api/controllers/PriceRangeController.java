@@ -3,8 +3,8 @@ package dk.systemedz.entsoe.marketdataservice.api.controllers;
 import dk.systemedz.entsoe.marketdataservice.api.dto.AreaCodeDto;
 import dk.systemedz.entsoe.marketdataservice.api.dto.ErrorMessageDetailDto;
 import dk.systemedz.entsoe.marketdataservice.api.dto.PricesResponseDto;
-import dk.systemedz.entsoe.marketdataservice.api.mappers.DtoMapper;
 import dk.systemedz.entsoe.marketdataservice.api.rest.PriceRangeControllerApiDelegate;
+import dk.systemedz.entsoe.marketdataservice.api.writers.PricesResponseWriter;
 import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
 import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
 import dk.systemedz.entsoe.marketdataservice.domain.models.enums.QueryType;
@@ -22,12 +22,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateDateTimeRange;
 import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateEntsoeSecurityTokenAndAreaCode;
+import static dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallExceptionUtils.toRestCallException;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
-import static org.springframework.http.ResponseEntity.ok;
 
 @Component
 @Slf4j
@@ -35,43 +36,37 @@ import static org.springframework.http.ResponseEntity.ok;
 public class PriceRangeController implements PriceRangeControllerApiDelegate {
 
     private final EntsoeService service;
-    private final DtoMapper mapper;
+    private final PricesResponseWriter responseWriter;
 
     @Override
-    public ResponseEntity<PricesResponseDto> getPricesByFromDate(AreaCodeDto areaCode, String fromDateTime, String entsoeSecurityToken, String securityToken) throws Exception {
+    public CompletableFuture<ResponseEntity<PricesResponseDto>> getPricesByFromDate(AreaCodeDto areaCode, String fromDateTime, String entsoeSecurityToken, String securityToken) throws Exception {
         if(isBlank(entsoeSecurityToken))
             entsoeSecurityToken = securityToken;
 
-        MarketDocument prices = getPricesByRange(entsoeSecurityToken, areaCode, fromDateTime, LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE));
-        return ok(mapper.mapPricesResponse(prices));
+        CompletableFuture<MarketDocument> prices = getPricesByRange(entsoeSecurityToken, areaCode, fromDateTime, LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE));
+        return responseWriter.write(prices);
     }
 
     @Override
-    public ResponseEntity<PricesResponseDto> getPricesByFromToDate(AreaCodeDto areaCode, String fromDateTime, String toDateTime, String entsoeSecurityToken, String securityToken) throws Exception {
+    public CompletableFuture<ResponseEntity<PricesResponseDto>> getPricesByFromToDate(AreaCodeDto areaCode, String fromDateTime, String toDateTime, String entsoeSecurityToken, String securityToken) throws Exception {
         if(isBlank(entsoeSecurityToken))
             entsoeSecurityToken = securityToken;
 
-        MarketDocument prices = getPricesByRange(entsoeSecurityToken, areaCode, fromDateTime, toDateTime);
-        return ok(mapper.mapPricesResponse(prices));
+        CompletableFuture<MarketDocument> prices = getPricesByRange(entsoeSecurityToken, areaCode, fromDateTime, toDateTime);
+        return responseWriter.write(prices);
     }
 
-    private MarketDocument getPricesByRange(String entsoeSecurityToken, AreaCodeDto areaCode, String fromDate, String toDate) {
+    private CompletableFuture<MarketDocument> getPricesByRange(String entsoeSecurityToken, AreaCodeDto areaCode, String fromDate, String toDate) {
         assertValidRangeInputs(areaCode, entsoeSecurityToken, fromDate, toDate);
 
-        try {
-            Map<String, String> params = new HashMap<>();
-            params.put("from", fromDate.trim().substring(0,8));
-            params.put("to", isNotBlank(toDate) ? toDate.trim().substring(0,8) : null);
+        Map<String, String> params = new HashMap<>();
+        params.put("from", fromDate.trim().substring(0,8));
+        params.put("to", isNotBlank(toDate) ? toDate.trim().substring(0,8) : null);
 
-            return service.
-                    getPricesFromEntsoeApi(entsoeSecurityToken.trim(), AreaCode.valueOf(areaCode.name()).getAreaCode(),
-                            params, QueryType.DATETIME);
-        } catch (RestCallException re){
-            throw new RestCallException("No data provided by ENTSO-E. Try another interval.", HttpStatus.NO_CONTENT);
-        } catch (RuntimeException e) {
-            log.error("Error:", e);
-            throw new RestCallException("Something went wrong", HttpStatus.BAD_REQUEST, e);
-        }
+        return service.
+                getPricesFromEntsoeApiAsync(entsoeSecurityToken.trim(), AreaCode.valueOf(areaCode.name()).getAreaCode(),
+                        params, QueryType.DATETIME)
+                .exceptionally(e -> { throw toRestCallException(e); });
     }
 
     private void assertValidRangeInputs(AreaCodeDto areaCode, String entsoeSecurityToken, String fromDateTime, String toDateTime) {
@@ -0,0 +1,99 @@
+package dk.systemedz.entsoe.marketdataservice.api.controllers;
+
+import dk.systemedz.entsoe.marketdataservice.api.dto.AreaCodeDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.CheapestHoursResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.ErrorMessageDetailDto;
+import dk.systemedz.entsoe.marketdataservice.api.mappers.DtoMapper;
+import dk.systemedz.entsoe.marketdataservice.api.rest.PriceScheduleControllerApiDelegate;
+import dk.systemedz.entsoe.marketdataservice.domain.models.CheapestHours;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallException;
+import dk.systemedz.entsoe.marketdataservice.service.PriceScheduleService;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateEntsoeSecurityTokenAndAreaCode;
+import static dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallExceptionUtils.toRestCallException;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.springframework.http.ResponseEntity.ok;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PriceScheduleController implements PriceScheduleControllerApiDelegate {
+
+    private static final int DEFAULT_HORIZON = 36;
+
+    private final PriceScheduleService service;
+    private final DtoMapper mapper;
+
+    @Override
+    public CompletableFuture<ResponseEntity<CheapestHoursResponseDto>> getCheapestHours(AreaCodeDto areaCode, Integer hours, Integer blockLength, Integer horizon,
+                                                                     String earliestStart, String latestEnd, String entsoeSecurityToken, String securityToken) throws Exception {
+        if(isBlank(entsoeSecurityToken))
+            entsoeSecurityToken = securityToken;
+
+        List<ErrorMessageDetailDto> details = new ArrayList<>(validateEntsoeSecurityTokenAndAreaCode(entsoeSecurityToken, areaCode));
+        if(isNull(hours) && isNull(blockLength)) {
+            details.add(ErrorMessageDetailDto.builder()
+                    .field("hours/blockLength")
+                    .message("Either the number of cheapest hours ('hours'), or the length of the cheapest block ('blockLength') has to be provided.")
+                    .build());
+        }
+
+        LocalDateTime windowStart = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime windowEnd = windowStart.plusHours(nonNull(horizon) ? horizon : DEFAULT_HORIZON);
+        try {
+            if(isNotBlank(earliestStart)) {
+                LocalDateTime start = DateTimeUtils.parseEntsoeQueryDateTime(earliestStart.trim());
+                LocalDateTime startHour = start.truncatedTo(ChronoUnit.HOURS);
+                start = startHour.equals(start) ? start : startHour.plusHours(1);
+                windowStart = start.isAfter(windowStart) ? start : windowStart;
+            }
+            if(isNotBlank(latestEnd)) {
+                LocalDateTime end = DateTimeUtils.parseEntsoeQueryDateTime(latestEnd.trim()).truncatedTo(ChronoUnit.HOURS);
+                windowEnd = end.isBefore(windowEnd) ? end : windowEnd;
+            }
+        } catch (DateTimeParseException e) {
+            details.add(ErrorMessageDetailDto.builder()
+                    .field("earliestStart/latestEnd")
+                    .message("Timestamp format has to be yyyyMMddHHmm. Example: December 1st, 2022 at 23:00 (11PM) would be 202212012300.")
+                    .build());
+        }
+
+        if(details.isEmpty() && !windowEnd.isAfter(windowStart)) {
+            details.add(ErrorMessageDetailDto.builder()
+                    .field("earliestStart/latestEnd")
+                    .message("There are no hours left to search between earliestStart/latestEnd and the horizon.")
+                    .build());
+        }
+
+        if(!details.isEmpty())
+            throw new RestCallException("Invalid parameters provided. See Details for more information.", details, HttpStatus.BAD_REQUEST);
+
+        CompletableFuture<CheapestHours> cheapestHours = getCheapestHours(entsoeSecurityToken, areaCode, windowStart, windowEnd, hours, blockLength);
+        return cheapestHours.thenApply(schedule -> ok(mapper.mapCheapestHoursResponse(schedule)));
+    }
+
+    private CompletableFuture<CheapestHours> getCheapestHours(String entsoeSecurityToken, AreaCodeDto areaCode, LocalDateTime windowStart, LocalDateTime windowEnd,
+                                                              Integer hours, Integer blockLength) {
+        return service.getCheapestHoursAsync(entsoeSecurityToken.trim(), AreaCode.valueOf(areaCode.name()).getAreaCode(),
+                        windowStart, windowEnd, hours, blockLength)
+                .exceptionally(e -> { throw toRestCallException(e); });
+    }
+}
@@ -3,8 +3,8 @@ package dk.systemedz.entsoe.marketdataservice.api.controllers;
 import dk.systemedz.entsoe.marketdataservice.api.dto.AreaCodeDto;
 import dk.systemedz.entsoe.marketdataservice.api.dto.ErrorMessageDetailDto;
 import dk.systemedz.entsoe.marketdataservice.api.dto.PricesResponseDto;
-import dk.systemedz.entsoe.marketdataservice.api.mappers.DtoMapper;
 import dk.systemedz.entsoe.marketdataservice.api.rest.PriceSpecificControllerApiDelegate;
+import dk.systemedz.entsoe.marketdataservice.api.writers.PricesResponseWriter;
 import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
 import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
 import dk.systemedz.entsoe.marketdataservice.domain.models.enums.IntervalType;
@@ -18,13 +18,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateEntsoeSecurityTokenAndAreaCode;
 import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateYearMonthWeek;
+import static dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallExceptionUtils.toRestCallException;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static org.apache.commons.lang3.StringUtils.isBlank;
-import static org.springframework.http.ResponseEntity.ok;
 
 @Component
 @Slf4j
@@ -32,58 +33,58 @@ import static org.springframework.http.ResponseEntity.ok;
 public class PriceSpecificController implements PriceSpecificControllerApiDelegate {
 
     private final EntsoeService service;
-    private final DtoMapper mapper;
+    private final PricesResponseWriter responseWriter;
 
 
     @Override
-    public ResponseEntity<PricesResponseDto> getPricesByMonth(AreaCodeDto areaCode, Integer month, Integer year, String entsoeSecurityToken, String securityToken) throws Exception {
+    public CompletableFuture<ResponseEntity<PricesResponseDto>> getPricesByMonth(AreaCodeDto areaCode, Integer month, Integer year, String entsoeSecurityToken, String securityToken) throws Exception {
         if(isBlank(entsoeSecurityToken))
             entsoeSecurityToken = securityToken;
 
-        MarketDocument prices = getPricesBySpecific(entsoeSecurityToken, areaCode, IntervalType.MONTH, month, year);
-        return ok(mapper.mapPricesResponse(prices));
+        CompletableFuture<MarketDocument> prices = getPricesBySpecific(entsoeSecurityToken, areaCode, IntervalType.MONTH, month, year);
+        return responseWriter.write(prices);
     }
 
     @Override
-    public ResponseEntity<PricesResponseDto> getPricesByWeek(AreaCodeDto areaCode, Integer week, Integer year, String entsoeSecurityToken, String securityToken) throws Exception {
+    public CompletableFuture<ResponseEntity<PricesResponseDto>> getPricesByWeek(AreaCodeDto areaCode, Integer week, Integer year, String entsoeSecurityToken, String securityToken) throws Exception {
         if(isBlank(entsoeSecurityToken))
             entsoeSecurityToken = securityToken;
 
-        MarketDocument prices = getPricesBySpecific(entsoeSecurityToken, areaCode, IntervalType.WEEK, week, year);
-        return ok(mapper.mapPricesResponse(prices));
+        CompletableFuture<MarketDocument> prices = getPricesBySpecific(entsoeSecurityToken, areaCode, IntervalType.WEEK, week, year);
+        return responseWriter.write(prices);
     }
 
     @Override
-    public ResponseEntity<PricesResponseDto> getPricesByYear(AreaCodeDto areaCode, Integer year, String entsoeSecurityToken, String securityToken) throws Exception {
+    public CompletableFuture<ResponseEntity<PricesResponseDto>> getPricesByYear(AreaCodeDto areaCode, Integer year, String entsoeSecurityToken, String securityToken) throws Exception {
         if(isBlank(entsoeSecurityToken))
             entsoeSecurityToken = securityToken;
 
         Integer currentYear = Calendar.getInstance().get(Calendar.YEAR);
-        MarketDocument prices = getPricesBySpecific(entsoeSecurityToken, areaCode, IntervalType.YEAR, currentYear, currentYear);
-        return ok(mapper.mapPricesResponse(prices));
+        CompletableFuture<MarketDocument> prices = getPricesBySpecific(entsoeSecurityToken, areaCode, IntervalType.YEAR, currentYear, currentYear);
+        return responseWriter.write(prices);
     }
 
     @Override
-    public ResponseEntity<PricesResponseDto> getPricesCurrentMonth(AreaCodeDto areaCode, Integer year, String entsoeSecurityToken, String securityToken) throws Exception {
+    public CompletableFuture<ResponseEntity<PricesResponseDto>> getPricesCurrentMonth(AreaCodeDto areaCode, Integer year, String entsoeSecurityToken, String securityToken) throws Exception {
         if(isBlank(entsoeSecurityToken))
             entsoeSecurityToken = securityToken;
 
         Integer currentMonth = Calendar.getInstance().get(Calendar.MONTH);
-        MarketDocument prices = getPricesBySpecific(entsoeSecurityToken, areaCode, IntervalType.MONTH, currentMonth, year);
-        return ok(mapper.mapPricesResponse(prices));
+        CompletableFuture<MarketDocument> prices = getPricesBySpecific(entsoeSecurityToken, areaCode, IntervalType.MONTH, currentMonth, year);
+        return responseWriter.write(prices);
     }
 
     @Override
-    public ResponseEntity<PricesResponseDto> getPricesCurrentWeek(AreaCodeDto areaCode, Integer year, String entsoeSecurityToken, String securityToken) throws Exception {
+    public CompletableFuture<ResponseEntity<PricesResponseDto>> getPricesCurrentWeek(AreaCodeDto areaCode, Integer year, String entsoeSecurityToken, String securityToken) throws Exception {
         if(isBlank(entsoeSecurityToken))
             entsoeSecurityToken = securityToken;
 
         Integer currentWeek = Calendar.getInstance().get(Calendar.WEEK_OF_YEAR);
-        MarketDocument prices = getPricesBySpecific(entsoeSecurityToken, areaCode, IntervalType.WEEK, currentWeek, year);
-        return ok(mapper.mapPricesResponse(prices));
+        CompletableFuture<MarketDocument> prices = getPricesBySpecific(entsoeSecurityToken, areaCode, IntervalType.WEEK, currentWeek, year);
+        return responseWriter.write(prices);
     }
 
-    private MarketDocument getPricesBySpecific(String entsoeSecurityToken, AreaCodeDto areaCode, IntervalType type, Integer specific, Integer year) {
+    private CompletableFuture<MarketDocument> getPricesBySpecific(String entsoeSecurityToken, AreaCodeDto areaCode, IntervalType type, Integer specific, Integer year) {
         assertValidSecurityTokenAndAreaCodeInputs(areaCode, entsoeSecurityToken);
 
         if(isNull(year))
@@ -114,16 +115,10 @@ public class PriceSpecificController implements PriceSpecificControllerApiDelega
             default -> throw new RestCallException("The specified interval type is not valid.", HttpStatus.BAD_REQUEST);
         }
 
-        try {
-            return service.
-                    getPricesFromEntsoeApi(entsoeSecurityToken.trim(), AreaCode.valueOf(areaCode.name()).getAreaCode(),
-                            params, QueryType.FIXED);
-        } catch(RestCallException re) {
-            throw new RestCallException("No data provided by ENTSO-E. Try another interval.", HttpStatus.NO_CONTENT);
-        } catch (RuntimeException e) {
-            log.error("Error:", e);
-            throw new RestCallException("Something went wrong", HttpStatus.BAD_REQUEST, e);
-        }
+        return service.
+                getPricesFromEntsoeApiAsync(entsoeSecurityToken.trim(), AreaCode.valueOf(areaCode.name()).getAreaCode(),
+                        params, QueryType.FIXED)
+                .exceptionally(e -> { throw toRestCallException(e); });
     }
 
 
@@ -0,0 +1,248 @@
+package dk.systemedz.entsoe.marketdataservice.api.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.systemedz.entsoe.marketdataservice.api.dto.AreaCodeDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.ErrorMessageDetailDto;
+import dk.systemedz.entsoe.marketdataservice.api.mappers.DtoMapper;
+import dk.systemedz.entsoe.marketdataservice.domain.events.DayAheadPricesPublishedEvent;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallException;
+import dk.systemedz.entsoe.marketdataservice.service.EntsoeService;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static dk.systemedz.entsoe.marketdataservice.api.validators.RestInputValidatorUtils.validateEntsoeSecurityTokenAndAreaCode;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Server-Sent Events subscriptions on the day-ahead prices of an area, so clients do not have to poll
+ * /by-interval/day/next around the publication time. Subscribers receive the new day as an IntervalDay
+ * as soon as it has been cached.
+ * <p>
+ * Idle subscriptions are async requests without a thread, and every published day is serialized once and
+ * written to all subscribers of the area. A heartbeat comment keeps idle connections open through proxies.
+ * Writes block while a client does not read, so every subscriber is written on the subscription send executor
+ * with at most one write in flight: a heartbeat for a busy subscriber is skipped, and a busy subscriber is
+ * dropped when new prices are published. It receives them when it reconnects with its Last-Event-ID.
+ * <p>
+ * Prices are only pushed when the service prefetches the day-ahead (entsoe.prefetch.security-token), so
+ * subscriptions are rejected without it.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1")
+@Tag(name = "PriceSubscriptionController")
+public class PriceSubscriptionController {
+
+    private static final String PRICES_EVENT = "prices";
+
+    @Value("${entsoe.subscription.timeout:PT30M}")
+    private Duration timeout;
+    @Value("${entsoe.subscription.heartbeat-interval:PT30S}")
+    private Duration heartbeatInterval;
+    @Value("${entsoe.subscription.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    private record PublishedPrices(LocalDate deliveryDay, String intervalDay) {
+        private SseEmitter.SseEventBuilder toEvent() {
+            return SseEmitter.event()
+                    .id(deliveryDay.toString())
+                    .name(PRICES_EVENT)
+                    .data(intervalDay, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private record Subscriber(SseEmitter emitter, AtomicBoolean sending, AtomicBoolean dropped) {
+        private Subscriber(SseEmitter emitter) {
+            this(emitter, new AtomicBoolean(), new AtomicBoolean());
+        }
+    }
+
+    private final DtoMapper mapper;
+    private final ObjectMapper objectMapper;
+    private final EntsoeService entsoeService;
+    private final ExecutorService sendExecutor;
+    private final ScheduledExecutorService heartbeatScheduler;
+    private ScheduledFuture<?> heartbeat;
+    private final Map<AreaCode, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Map<AreaCode, PublishedPrices> latestPrices = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    public PriceSubscriptionController(DtoMapper mapper, ObjectMapper objectMapper, EntsoeService entsoeService,
+                                       ExecutorService subscriptionSendExecutor, ScheduledExecutorService subscriptionHeartbeatScheduler) {
+        this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.entsoeService = entsoeService;
+        this.sendExecutor = subscriptionSendExecutor;
+        this.heartbeatScheduler = subscriptionHeartbeatScheduler;
+    }
+
+    @PostConstruct
+    public void startHeartbeat() {
+        heartbeat = heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeat, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if(nonNull(heartbeat))
+            heartbeat.cancel(false);
+        subscribers.values().forEach(areaSubscribers -> areaSubscribers.forEach(subscriber -> subscriber.emitter().complete()));
+    }
+
+    @Operation(summary = "Subscribe to the day-ahead prices of an area.",
+            description = "Server-Sent Events stream, which pushes a 'prices' event with the IntervalDay of tomorrow as soon as " +
+                    "ENTSO-E has published it. The event id is the delivery day. If tomorrow's prices are already published, " +
+                    "they are sent right away, unless the Last-Event-ID header has the same delivery day. " +
+                    "A subscriber that has not read the previous event when new prices are published is disconnected. " +
+                    "Responds with 503 when the service does not prefetch the day-ahead prices.")
+    @GetMapping(value = "/prices/{areaCode}/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@PathVariable("areaCode") AreaCodeDto areaCode,
+                                @RequestHeader(value = "entsoe-security-token", required = false) String entsoeSecurityToken,
+                                @RequestParam(value = "securityToken", required = false) String securityToken,
+                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) throws RestCallException {
+        if(isBlank(entsoeSecurityToken))
+            entsoeSecurityToken = securityToken;
+
+        List<ErrorMessageDetailDto> details = validateEntsoeSecurityTokenAndAreaCode(entsoeSecurityToken, areaCode);
+        if(!details.isEmpty())
+            throw new RestCallException("Invalid parameters provided. See Details for more information.", details, HttpStatus.BAD_REQUEST);
+        if(!entsoeService.isPrefetchEnabled())
+            throw new RestCallException("Subscriptions are not available, as the day-ahead prices are not prefetched. Poll /by-interval/day/next instead.", HttpStatus.SERVICE_UNAVAILABLE);
+
+        if(subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RestCallException("Too many subscribers. Try again later.", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        AreaCode area = AreaCode.valueOf(areaCode.name());
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter);
+        Set<Subscriber> areaSubscribers = subscribers.computeIfAbsent(area, key -> ConcurrentHashMap.newKeySet());
+        areaSubscribers.add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(areaSubscribers, subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(areaSubscribers, subscriber));
+
+        PublishedPrices prices = latestPrices.get(area);
+        if(nonNull(prices) && prices.deliveryDay().isAfter(LocalDate.now(DateTimeUtils.MARKET_ZONE))
+                && !prices.deliveryDay().toString().equals(lastEventId))
+            send(emitter, prices.toEvent());
+
+        return emitter;
+    }
+
+    @EventListener
+    public void onDayAheadPricesPublished(DayAheadPricesPublishedEvent event) {
+        PublishedPrices prices;
+        try {
+            prices = new PublishedPrices(event.getDeliveryDay(), objectMapper.writeValueAsString(mapper.mapIntervalDay(event.getIntervalDay())));
+        } catch (JsonProcessingException e) {
+            log.error("Unable to serialize day-ahead prices for {} on {}", event.getArea(), event.getDeliveryDay(), e);
+            return;
+        }
+        latestPrices.put(event.getArea(), prices);
+
+        Set<Subscriber> areaSubscribers = subscribers.get(event.getArea());
+        if(isNull(areaSubscribers) || areaSubscribers.isEmpty())
+            return;
+
+        log.info("Pushing day-ahead prices for {} on {} to {} subscriber(s)", event.getArea(), event.getDeliveryDay(), areaSubscribers.size());
+        areaSubscribers.forEach(subscriber -> {
+            if(!dispatch(subscriber, prices.toEvent()))
+                drop(areaSubscribers, subscriber);
+        });
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    private void sendHeartbeat() {
+        subscribers.values().forEach(areaSubscribers ->
+                areaSubscribers.forEach(subscriber -> dispatch(subscriber, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    /**
+     * Writes the event to the subscriber on the send executor, unless a previous write to it is still in flight.
+     * @return Whether the write has been submitted
+     */
+    private boolean dispatch(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if(!subscriber.sending().compareAndSet(false, true))
+            return false;
+
+        try {
+            sendExecutor.execute(() -> {
+                try {
+                    send(subscriber.emitter(), event);
+                } finally {
+                    subscriber.sending().set(false);
+                    if(subscriber.dropped().get() && subscriber.sending().compareAndSet(false, true))
+                        subscriber.emitter().complete();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            subscriber.sending().set(false);
+            return false;
+        }
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client has disconnected, which is only noticed on the next write
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Completing the emitter would wait for its blocked write, so it is completed by whichever comes last:
+     * this call or the write returning.
+     */
+    private void drop(Set<Subscriber> areaSubscribers, Subscriber subscriber) {
+        subscriber.dropped().set(true);
+        unsubscribe(areaSubscribers, subscriber);
+        if(subscriber.sending().compareAndSet(false, true))
+            subscriber.emitter().complete();
+        log.debug("Dropped a subscriber that has not read its previous event");
+    }
+
+    private void unsubscribe(Set<Subscriber> areaSubscribers, Subscriber subscriber) {
+        if(areaSubscribers.remove(subscriber))
+            subscriberCount.decrementAndGet();
+    }
+}
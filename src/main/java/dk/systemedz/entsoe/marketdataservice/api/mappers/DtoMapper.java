@@ -1,20 +1,30 @@
 package dk.systemedz.entsoe.marketdataservice.api.mappers;
 
+import dk.systemedz.entsoe.marketdataservice.api.dto.AggregatedPricesResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.BatchPricesResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.CheapestHoursResponseDto;
 import dk.systemedz.entsoe.marketdataservice.api.dto.IntervalDayDto;
 import dk.systemedz.entsoe.marketdataservice.api.dto.PricePointDto;
 import dk.systemedz.entsoe.marketdataservice.api.dto.PricesResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.RollingStatisticsResponseDto;
 import dk.systemedz.entsoe.marketdataservice.api.dto.TimeIntervalDto;
-import dk.systemedz.entsoe.marketdataservice.domain.models.IntervalDay;
+import dk.systemedz.entsoe.marketdataservice.domain.models.AggregatedMarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.BatchMarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.CheapestHours;
 import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
 import dk.systemedz.entsoe.marketdataservice.domain.models.PricePoint;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.RollingStatistics;
 import dk.systemedz.entsoe.marketdataservice.domain.models.TimeInterval;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 import org.mapstruct.ReportingPolicy;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 @Mapper(
         componentModel = "spring",
@@ -29,15 +39,54 @@ public interface DtoMapper {
     })
     PricesResponseDto mapPricesResponse(MarketDocument marketDocument);
 
+    @Mapping(source = "marketDocuments", target = "prices")
+    BatchPricesResponseDto mapBatchPricesResponse(BatchMarketDocument batchMarketDocument);
+
+    @Mappings({
+            @Mapping(source = "area.areaName", target = "area"),
+            @Mapping(source = "area.areaCode", target = "areaCode")
+    })
+    AggregatedPricesResponseDto mapAggregatedPricesResponse(AggregatedMarketDocument aggregatedMarketDocument);
+
+    @Mappings({
+            @Mapping(source = "area.areaName", target = "area"),
+            @Mapping(source = "area.areaCode", target = "areaCode")
+    })
+    CheapestHoursResponseDto mapCheapestHoursResponse(CheapestHours cheapestHours);
+
+    @Mappings({
+            @Mapping(source = "area.areaName", target = "area"),
+            @Mapping(source = "area.areaCode", target = "areaCode")
+    })
+    RollingStatisticsResponseDto mapRollingStatisticsResponse(RollingStatistics rollingStatistics);
+
     @Mappings({
             @Mapping(source = "intervalStart", target = "start"),
             @Mapping(source = "intervalEnd", target = "end")
     })
     TimeIntervalDto mapTimeInterval(TimeInterval timeInterval);
     default String mapLocalDateTime(LocalDateTime localDateTime) {
-        return localDateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        return DateTimeUtils.formatIsoDateTime(localDateTime);
+    }
+
+    @Mapping(source = "priceSeries", target = "hourPrices")
+    IntervalDayDto mapIntervalDay(PriceSeries priceSeries);
+
+    /**
+     * Formats the hours straight from the epoch seconds of the PriceSeries, instead of going through a
+     * PricePoint and LocalDateTime per hour.
+     */
+    default List<PricePointDto> mapHourPrices(PriceSeries priceSeries) {
+        List<PricePointDto> hourPrices = new ArrayList<>(priceSeries.size());
+        char[] buffer = new char[DateTimeUtils.ISO_DATE_TIME_LENGTH];
+        for (int i = 0; i < priceSeries.size(); i++) {
+            hourPrices.add(PricePointDto.builder()
+                    .hour(new String(buffer, 0, DateTimeUtils.formatIsoDateTime(priceSeries.getEpochSecond(i), buffer, 0)))
+                    .price(priceSeries.getPrice(i))
+                    .build());
+        }
+        return hourPrices;
     }
-    IntervalDayDto mapIntervalDay(IntervalDay intervalDay);
 
     PricePointDto mapPricePoint(PricePoint pricePoint);
 }
@@ -60,6 +60,9 @@ public class RestInputValidatorUtils {
         return details;
     }
     public static List<ErrorMessageDetailDto> validateDateTimeRange(String from, String to) {
+        return validateDateTimeRange(from, to, 365);
+    }
+    public static List<ErrorMessageDetailDto> validateDateTimeRange(String from, String to, long maxDays) {
         List<ErrorMessageDetailDto> details = new ArrayList<>();
 
         if(isBlank(from)){
@@ -115,12 +118,14 @@ public class RestInputValidatorUtils {
                     }
                 }
 
-                if (ChronoUnit.DAYS.between(fromDate, toDate) > 365) {
+                if (ChronoUnit.DAYS.between(fromDate, toDate) > maxDays) {
+                    // The price endpoints keep their original message, other limits (e.g. the export) name their own
+                    String limit = maxDays == 365 ? "365 days (1 year)" : maxDays + " days";
                     details.add(ErrorMessageDetailDto.builder()
                             .field("from/to")
-                            .message("Date range is limited to 365 days (1 year). " +
+                            .message("Date range is limited to " + limit + ". " +
                                     "If you want to search for days further back in time, " +
-                                    "please ensure that there is no more than 365 days between from and to.")
+                                    "please ensure that there is no more than " + maxDays + " days between from and to.")
                             .build());
                 }
             }
@@ -180,7 +185,7 @@ public class RestInputValidatorUtils {
                             "to a year equal to, or after 2015.")
                     .build());
         }
-        if(year == 2015 && month < 4) {
+        if(year == 2015 && nonNull(month) && month < 4) {
             details.add(ErrorMessageDetailDto.builder()
                     .field("month")
                     .message("No data available prior to April 1st, 2015." +
@@ -189,7 +194,7 @@ public class RestInputValidatorUtils {
                     .build());
         }
 
-        if(year == 2015 && month < 15) {
+        if(year == 2015 && nonNull(week) && week < 15) {
             details.add(ErrorMessageDetailDto.builder()
                     .field("week")
                     .message("No data available prior to April 1st, 2015." +
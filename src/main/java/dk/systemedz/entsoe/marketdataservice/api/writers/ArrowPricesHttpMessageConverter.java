@@ -0,0 +1,187 @@
+package dk.systemedz.entsoe.marketdataservice.api.writers;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampSecTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Writes price responses as an Apache Arrow IPC stream, so analytics clients can read long ranges straight
+ * into a columnar frame. The columns are time (timestamp in seconds, UTC) and price (float64, null when
+ * ENTSO-E has no price), and batch responses start with an areaCode column. Area, currency and measure unit
+ * are stored in the schema metadata when they are the same for every row, otherwise currency and measureUnit
+ * are written as columns. Every record batch holds up to {@link #BATCH_ROWS} rows.
+ * <p>
+ * The servlet output stream is left open when the stream writer is closed, as it is owned by the container.
+ */
+@Component
+public class ArrowPricesHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType ARROW_STREAM = new MediaType("application", "vnd.apache.arrow.stream");
+
+    private static final int BATCH_ROWS = 8784;
+    private static final String AREA_CODE = "areaCode";
+    private static final String CURRENCY = "currency";
+    private static final String MEASURE_UNIT = "measureUnit";
+    private static final String TIME = "time";
+    private static final String PRICE = "price";
+
+    private final BufferAllocator allocator = new RootAllocator();
+
+    public ArrowPricesHttpMessageConverter() {
+        super(ARROW_STREAM);
+    }
+
+    @PreDestroy
+    public void close() {
+        allocator.close();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return StreamingPricesResponse.class.equals(clazz) || StreamingBatchPricesResponse.class.equals(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Arrow request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        boolean batch = body instanceof StreamingBatchPricesResponse;
+        List<MarketDocument> marketDocuments = batch ?
+                ((StreamingBatchPricesResponse) body).getPrices().stream().map(StreamingPricesResponse::getMarketDocument).toList() :
+                List.of(((StreamingPricesResponse) body).getMarketDocument());
+
+        Schema schema = createSchema(marketDocuments, batch);
+        boolean currencyColumn = schema.getFields().stream().anyMatch(field -> CURRENCY.equals(field.getName()));
+        boolean measureUnitColumn = schema.getFields().stream().anyMatch(field -> MEASURE_UNIT.equals(field.getName()));
+
+        try (BufferAllocator responseAllocator = allocator.newChildAllocator("prices-response", 0, Long.MAX_VALUE);
+             VectorSchemaRoot root = VectorSchemaRoot.create(schema, responseAllocator);
+             ArrowStreamWriter writer = new ArrowStreamWriter(root, null, Channels.newChannel(StreamUtils.nonClosing(outputMessage.getBody())))) {
+            writer.start();
+            root.allocateNew();
+            int row = 0;
+
+            for (MarketDocument marketDocument : marketDocuments) {
+                byte[] areaCode = nonNull(marketDocument.getArea()) ?
+                        marketDocument.getArea().name().getBytes(StandardCharsets.UTF_8) : new byte[0];
+
+                for (PriceSeries day : marketDocument.getIntervalDays()) {
+                    byte[] currency = nonNull(day.getCurrency()) ? day.getCurrency().getBytes(StandardCharsets.UTF_8) : null;
+                    byte[] measureUnit = nonNull(day.getMeasureUnit()) ? day.getMeasureUnit().getBytes(StandardCharsets.UTF_8) : null;
+
+                    for (int i = 0; i < day.size(); i++) {
+                        if(batch)
+                            ((VarCharVector) root.getVector(AREA_CODE)).setSafe(row, areaCode);
+                        if(currencyColumn)
+                            setText((VarCharVector) root.getVector(CURRENCY), row, currency);
+                        if(measureUnitColumn)
+                            setText((VarCharVector) root.getVector(MEASURE_UNIT), row, measureUnit);
+                        ((TimeStampSecTZVector) root.getVector(TIME)).setSafe(row, day.getEpochSecond(i));
+                        Float8Vector prices = (Float8Vector) root.getVector(PRICE);
+                        if(Double.isNaN(day.getPrice(i)))
+                            prices.setNull(row);
+                        else
+                            prices.setSafe(row, day.getPrice(i));
+
+                        if(++row == BATCH_ROWS) {
+                            root.setRowCount(row);
+                            writer.writeBatch();
+                            root.allocateNew();
+                            row = 0;
+                        }
+                    }
+                }
+            }
+
+            if(row > 0) {
+                root.setRowCount(row);
+                writer.writeBatch();
+            }
+            writer.end();
+        }
+    }
+
+    private static void setText(VarCharVector vector, int row, byte[] text) {
+        if(nonNull(text))
+            vector.setSafe(row, text);
+        else
+            vector.setNull(row);
+    }
+
+    private Schema createSchema(List<MarketDocument> marketDocuments, boolean batch) {
+        Map<String, String> metadata = new HashMap<>();
+        Set<String> currencies = new HashSet<>();
+        Set<String> measureUnits = new HashSet<>();
+        for (MarketDocument marketDocument : marketDocuments) {
+            for (PriceSeries day : marketDocument.getIntervalDays()) {
+                currencies.add(day.getCurrency());
+                measureUnits.add(day.getMeasureUnit());
+            }
+        }
+
+        List<Field> fields = new ArrayList<>();
+        if(batch) {
+            fields.add(Field.notNullable(AREA_CODE, new ArrowType.Utf8()));
+        } else if(nonNull(marketDocuments.get(0).getArea())) {
+            AreaCode area = marketDocuments.get(0).getArea();
+            metadata.put("area", area.getAreaName());
+            metadata.put(AREA_CODE, area.getAreaCode());
+        }
+        fields.add(Field.notNullable(TIME, new ArrowType.Timestamp(TimeUnit.SECOND, "UTC")));
+        fields.add(Field.nullable(PRICE, new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)));
+        addTextField(fields, metadata, CURRENCY, currencies);
+        addTextField(fields, metadata, MEASURE_UNIT, measureUnits);
+
+        return new Schema(fields, metadata);
+    }
+
+    /**
+     * A value that is the same for every row goes into the metadata, otherwise it gets a column.
+     */
+    private static void addTextField(List<Field> fields, Map<String, String> metadata, String name, Set<String> values) {
+        if(values.size() > 1)
+            fields.add(Field.nullable(name, new ArrowType.Utf8()));
+        else if(values.size() == 1 && nonNull(values.iterator().next()))
+            metadata.put(name, values.iterator().next());
+    }
+}
@@ -0,0 +1,119 @@
+package dk.systemedz.entsoe.marketdataservice.api.writers;
+
+import dk.systemedz.entsoe.marketdataservice.api.dto.ExportFormatDto;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Writes a bulk export as CSV or NDJSON rows of area, timestamp, price, currency and unit. Every chunk of prices
+ * is written and flushed as soon as it has been read, and no Content-Length is known, so the response is sent
+ * with chunked transfer encoding and the memory used does not depend on the size of the export.
+ */
+@Component
+public class PriceExportHttpMessageConverter extends AbstractHttpMessageConverter<PriceExportResponse> {
+
+    private static final String CSV_HEADER = "area,timestamp,price,currency,unit\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public PriceExportHttpMessageConverter() {
+        super(PriceExportResponse.TEXT_CSV, PriceExportResponse.APPLICATION_NDJSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PriceExportResponse.class.equals(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected PriceExportResponse readInternal(Class<? extends PriceExportResponse> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Export request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(PriceExportResponse export, HttpOutputMessage outputMessage) throws IOException {
+        boolean ndjson = export.getFormat() == ExportFormatDto.NDJSON;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputMessage.getBody(), StandardCharsets.UTF_8), BUFFER_SIZE);
+        if(!ndjson)
+            writer.write(CSV_HEADER);
+
+        StringBuilder row = new StringBuilder(128);
+        char[] timeBuffer = new char[DateTimeUtils.ISO_DATE_TIME_LENGTH];
+        export.getExporter().export((area, days) -> {
+            try {
+                for (PriceSeries day : days) {
+                    for (int i = 0; i < day.size(); i++) {
+                        row.setLength(0);
+                        if(ndjson)
+                            appendJsonRow(row, area.name(), day, i, timeBuffer);
+                        else
+                            appendCsvRow(row, area.name(), day, i, timeBuffer);
+                        writer.append(row);
+                    }
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private static void appendCsvRow(StringBuilder row, String area, PriceSeries day, int index, char[] timeBuffer) {
+        row.append(area).append(',');
+        appendTimestamp(row, day.getEpochSecond(index), timeBuffer);
+        row.append(',');
+        if(!Double.isNaN(day.getPrice(index)))
+            row.append(day.getPrice(index));
+        row.append(',')
+                .append(nonNull(day.getCurrency()) ? day.getCurrency() : "").append(',')
+                .append(nonNull(day.getMeasureUnit()) ? day.getMeasureUnit() : "").append('\n');
+    }
+
+    private static void appendJsonRow(StringBuilder row, String area, PriceSeries day, int index, char[] timeBuffer) {
+        row.append("{\"area\":\"").append(area).append("\",\"timestamp\":\"");
+        appendTimestamp(row, day.getEpochSecond(index), timeBuffer);
+        row.append("\",\"price\":");
+        if(Double.isNaN(day.getPrice(index)))
+            row.append("null");
+        else
+            row.append(day.getPrice(index));
+        row.append(",\"currency\":");
+        appendJsonString(row, day.getCurrency());
+        row.append(",\"unit\":");
+        appendJsonString(row, day.getMeasureUnit());
+        row.append("}\n");
+    }
+
+    // Same format as Instant.toString, e.g. 2022-10-15T22:00:00Z, without creating an Instant and String per row
+    private static void appendTimestamp(StringBuilder row, long epochSecond, char[] timeBuffer) {
+        row.append(timeBuffer, 0, DateTimeUtils.formatIsoDateTime(epochSecond, timeBuffer, 0)).append('Z');
+    }
+
+    // Currencies and units are ISO/ENTSO-E codes, which never need escaping
+    private static void appendJsonString(StringBuilder row, String value) {
+        if(nonNull(value))
+            row.append('"').append(value).append('"');
+        else
+            row.append("null");
+    }
+}
@@ -0,0 +1,35 @@
+package dk.systemedz.entsoe.marketdataservice.api.writers;
+
+import dk.systemedz.entsoe.marketdataservice.api.dto.ExportFormatDto;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Response body of a bulk export. The prices are not read until the PriceExportHttpMessageConverter writes
+ * the body, which then receives them chunk by chunk from the exporter.
+ */
+@AllArgsConstructor
+@Getter
+public class PriceExportResponse {
+
+    public static final MediaType TEXT_CSV = new MediaType("text", "csv");
+    public static final MediaType APPLICATION_NDJSON = new MediaType("application", "x-ndjson");
+
+    @FunctionalInterface
+    public interface Exporter {
+        void export(BiConsumer<AreaCode, List<PriceSeries>> chunkConsumer);
+    }
+
+    private final ExportFormatDto format;
+    private final Exporter exporter;
+
+    public MediaType getMediaType() {
+        return format == ExportFormatDto.NDJSON ? APPLICATION_NDJSON : TEXT_CSV;
+    }
+}
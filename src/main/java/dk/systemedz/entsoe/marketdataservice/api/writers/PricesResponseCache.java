@@ -0,0 +1,126 @@
+package dk.systemedz.entsoe.marketdataservice.api.writers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.service.PriceSegmentCache;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Ready-to-send bodies of the hottest price responses (today and the day-ahead of every area), as JSON bytes and
+ * as a gzipped variant. The bodies are keyed by their ETag, which is derived from the prices, so a corrected day
+ * is never served from an old body. A body expires together with the first of its days in the
+ * {@link PriceSegmentCache}, so it never outlives the prices it was created from.
+ * A cached body keeps the createdDateTime of the request that created it.
+ */
+@Component
+public class PricesResponseCache {
+
+    public static final String CACHE_NAME = "prices-response";
+
+    /**
+     * @param ttl Time until the body expires, resolved from the cached days when it is created
+     */
+    public record CachedResponse(byte[] json, byte[] gzip, Duration ttl) {}
+
+    @Value("${entsoe.response.cache.max-days:2}")
+    private int maxDays;
+
+    private final ObjectMapper objectMapper;
+    private final PriceSegmentCache segmentCache;
+    private final Duration recentTtl;
+    private final Cache<String, CachedResponse> cache;
+
+    public PricesResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry, PriceSegmentCache segmentCache,
+                               @Value("${entsoe.response.cache.maximum-size:256}") long maximumSize,
+                               @Value("${entsoe.cache.recent-ttl:PT1H}") Duration recentTtl) {
+        this.objectMapper = objectMapper;
+        this.segmentCache = segmentCache;
+        this.recentTtl = recentTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                        return value.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return value.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Short windows that end today or later, which are requested again and again by every client.
+     */
+    public boolean isCacheable(MarketDocument marketDocument) {
+        return marketDocument.getIntervalDays().size() <= maxDays &&
+                marketDocument.getTimeInterval().getIntervalEnd()
+                        .isAfter(DateTimeUtils.getDeliveryDayStart(LocalDate.now(DateTimeUtils.MARKET_ZONE)));
+    }
+
+    public CachedResponse get(String eTag, MarketDocument marketDocument, Supplier<Object> body) {
+        return cache.get(eTag, key -> serialize(body.get(), getTtl(marketDocument)));
+    }
+
+    /**
+     * The remaining time of the first day to expire from the segment cache. A day that is not in it, e.g. because
+     * it has just been evicted, falls back to the recent TTL.
+     */
+    private Duration getTtl(MarketDocument marketDocument) {
+        if(isNull(marketDocument.getArea()))
+            return recentTtl;
+
+        Duration ttl = null;
+        for (PriceSeries day : marketDocument.getIntervalDays()) {
+            Duration dayTtl = segmentCache.getExpiresAfter(marketDocument.getArea().getAreaCode(), PriceSegmentCache.getDeliveryDay(day))
+                    .orElse(recentTtl);
+            ttl = isNull(ttl) || dayTtl.compareTo(ttl) < 0 ? dayTtl : ttl;
+        }
+        return nonNull(ttl) ? ttl : recentTtl;
+    }
+
+    private CachedResponse serialize(Object body, Duration ttl) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream gzip = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+                out.write(json);
+            }
+            return new CachedResponse(json, gzip.toByteArray(), ttl);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize the prices response", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
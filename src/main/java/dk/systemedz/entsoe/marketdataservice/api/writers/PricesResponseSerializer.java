@@ -0,0 +1,98 @@
+package dk.systemedz.entsoe.marketdataservice.api.writers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.TimeInterval;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Writes a MarketDocument as a PricesResponse (same field names and order as PricesResponseDto),
+ * streaming every hour price straight from the PriceSeries to the JsonGenerator.
+ * The hour timestamps are written from the epoch seconds of the PriceSeries through one char buffer per response,
+ * so no LocalDateTime or String is created per price.
+ */
+public class PricesResponseSerializer extends StdSerializer<StreamingPricesResponse> {
+
+    public PricesResponseSerializer() {
+        super(StreamingPricesResponse.class);
+    }
+
+    @Override
+    public void serialize(StreamingPricesResponse response, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        MarketDocument document = response.getMarketDocument();
+        AreaCode area = document.getArea();
+        char[] timeBuffer = new char[DateTimeUtils.ISO_DATE_TIME_LENGTH];
+
+        gen.writeStartObject();
+        gen.writeStringField("area", nonNull(area) ? area.getAreaName() : null);
+        gen.writeStringField("areaCode", nonNull(area) ? area.getAreaCode() : null);
+
+        gen.writeFieldName("timeInterval");
+        TimeInterval timeInterval = document.getTimeInterval();
+        if (isNull(timeInterval))
+            gen.writeNull();
+        else
+            writeTimeInterval(gen, timeInterval.getIntervalStart(), timeInterval.getIntervalEnd());
+
+        gen.writeArrayFieldStart("intervalDays");
+        if (nonNull(document.getIntervalDays())) {
+            for (PriceSeries priceSeries : document.getIntervalDays())
+                writeIntervalDay(gen, priceSeries, timeBuffer);
+        }
+        gen.writeEndArray();
+
+        gen.writeStringField("createdDateTime", formatDateTime(document.getCreatedDateTime()));
+        gen.writeEndObject();
+    }
+
+    private void writeIntervalDay(JsonGenerator gen, PriceSeries priceSeries, char[] timeBuffer) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName("currentDateInterval");
+        gen.writeStartObject();
+        writeTimeField(gen, "start", priceSeries.getEpochSecond(0), timeBuffer);
+        writeTimeField(gen, "end", priceSeries.getEndEpochSecond(), timeBuffer);
+        gen.writeEndObject();
+        gen.writeStringField("currency", priceSeries.getCurrency());
+        gen.writeStringField("measureUnit", priceSeries.getMeasureUnit());
+
+        gen.writeArrayFieldStart("hourPrices");
+        for (int i = 0; i < priceSeries.size(); i++) {
+            gen.writeStartObject();
+            writeTimeField(gen, "hour", priceSeries.getEpochSecond(i), timeBuffer);
+            double price = priceSeries.getPrice(i);
+            if (Double.isNaN(price))
+                gen.writeNullField("price");
+            else
+                gen.writeNumberField("price", price);
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    private void writeTimeInterval(JsonGenerator gen, LocalDateTime start, LocalDateTime end) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("start", formatDateTime(start));
+        gen.writeStringField("end", formatDateTime(end));
+        gen.writeEndObject();
+    }
+
+    private void writeTimeField(JsonGenerator gen, String fieldName, long epochSecond, char[] timeBuffer) throws IOException {
+        gen.writeFieldName(fieldName);
+        gen.writeString(timeBuffer, 0, DateTimeUtils.formatIsoDateTime(epochSecond, timeBuffer, 0));
+    }
+
+    private String formatDateTime(LocalDateTime localDateTime) {
+        return nonNull(localDateTime) ? DateTimeUtils.formatIsoDateTime(localDateTime) : null;
+    }
+}
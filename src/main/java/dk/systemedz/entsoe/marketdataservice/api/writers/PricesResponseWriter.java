@@ -0,0 +1,273 @@
+package dk.systemedz.entsoe.marketdataservice.api.writers;
+
+import dk.systemedz.entsoe.marketdataservice.api.dto.BatchPricesResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.PricesResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.mappers.DtoMapper;
+import dk.systemedz.entsoe.marketdataservice.domain.models.BatchMarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.TimeInterval;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.springframework.http.ResponseEntity.ok;
+
+/**
+ * Creates the price responses for the controller delegates. In streaming mode (default) the body is written
+ * directly from the MarketDocument by Jackson, otherwise it is mapped to a PricesResponseDto first.
+ * <p>
+ * Every response has a weak ETag, which is a hash of every field of the body except createdDateTime. A request
+ * with a matching If-None-Match is answered with 304 before the body is created. Fully settled windows may be
+ * cached by the client (entsoe.response.settled-max-age), all other windows have to be revalidated.
+ * The hottest responses are sent from the {@link PricesResponseCache} as ready-made bytes.
+ * Besides JSON, the responses are available as CBOR and as an Arrow stream, depending on the Accept header.
+ * <p>
+ * The request headers are read when a write is started, as an async response is completed on another thread.
+ */
+@Component
+public class PricesResponseWriter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final List<MediaType> RESPONSE_TYPES =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, ArrowPricesHttpMessageConverter.ARROW_STREAM);
+
+    @Value("${entsoe.response.streaming:true}")
+    private boolean streaming;
+    @Value("${entsoe.response.settled-max-age:P30D}")
+    private Duration settledMaxAge;
+
+    private final DtoMapper mapper;
+    private final PricesResponseCache responseCache;
+    private final HttpServletRequest request;
+
+    private record RequestHeaders(String accept, String acceptEncoding, String ifNoneMatch) {}
+
+    public PricesResponseWriter(DtoMapper mapper, PricesResponseCache responseCache, HttpServletRequest request) {
+        this.mapper = mapper;
+        this.responseCache = responseCache;
+        this.request = request;
+    }
+
+    public ResponseEntity<PricesResponseDto> write(MarketDocument marketDocument) {
+        return write(marketDocument, getRequestHeaders());
+    }
+
+    public CompletableFuture<ResponseEntity<PricesResponseDto>> write(CompletableFuture<MarketDocument> marketDocument) {
+        RequestHeaders headers = getRequestHeaders();
+        return marketDocument.thenApply(document -> write(document, headers));
+    }
+
+    private ResponseEntity<PricesResponseDto> write(MarketDocument marketDocument, RequestHeaders headers) {
+        List<MarketDocument> marketDocuments = List.of(marketDocument);
+        MediaType responseType = getResponseType(headers);
+        String eTag = createETag(marketDocuments, List.of(), responseType);
+        CacheControl cacheControl = getCacheControl(marketDocuments);
+        if(isNotModified(headers, eTag))
+            return notModified(eTag, cacheControl);
+
+        ResponseEntity.BodyBuilder response = ok().eTag(eTag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT);
+        if(MediaType.APPLICATION_JSON.equals(responseType) && responseCache.isCacheable(marketDocument))
+            return writeCached(response, responseCache.get(eTag, marketDocument, () -> createBody(marketDocument)), headers);
+
+        // The Arrow stream is always written from the MarketDocument
+        return withBody(response, ArrowPricesHttpMessageConverter.ARROW_STREAM.equals(responseType) ?
+                new StreamingPricesResponse(marketDocument) :
+                createBody(marketDocument));
+    }
+
+    public ResponseEntity<BatchPricesResponseDto> writeBatch(BatchMarketDocument batchMarketDocument) {
+        return writeBatch(batchMarketDocument, getRequestHeaders());
+    }
+
+    public CompletableFuture<ResponseEntity<BatchPricesResponseDto>> writeBatch(CompletableFuture<BatchMarketDocument> batchMarketDocument) {
+        RequestHeaders headers = getRequestHeaders();
+        return batchMarketDocument.thenApply(document -> writeBatch(document, headers));
+    }
+
+    private ResponseEntity<BatchPricesResponseDto> writeBatch(BatchMarketDocument batchMarketDocument, RequestHeaders headers) {
+        MediaType responseType = getResponseType(headers);
+        String eTag = createETag(batchMarketDocument.getMarketDocuments(), batchMarketDocument.getUnavailableAreas(), responseType);
+        CacheControl cacheControl = getCacheControl(batchMarketDocument.getMarketDocuments());
+        if(isNotModified(headers, eTag))
+            return notModified(eTag, cacheControl);
+
+        ResponseEntity.BodyBuilder response = ok().eTag(eTag).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT);
+        return streaming || ArrowPricesHttpMessageConverter.ARROW_STREAM.equals(responseType) ?
+                withBody(response, new StreamingBatchPricesResponse(batchMarketDocument)) :
+                response.body(mapper.mapBatchPricesResponse(batchMarketDocument));
+    }
+
+    /**
+     * Exports are always streamed and never cached, as they are read while they are written.
+     */
+    public ResponseEntity<String> writeExport(PriceExportResponse export, String fileName) {
+        return withBody(ok()
+                .contentType(export.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString()),
+                export);
+    }
+
+    private Object createBody(MarketDocument marketDocument) {
+        return streaming ?
+                new StreamingPricesResponse(marketDocument) :
+                mapper.mapPricesResponse(marketDocument);
+    }
+
+    /**
+     * The gzipped variant is sent whenever the client accepts it. The server compression (server.compression) leaves
+     * a response that already has a Content-Encoding alone, so the bytes are not compressed again.
+     */
+    private <T> ResponseEntity<T> writeCached(ResponseEntity.BodyBuilder response, PricesResponseCache.CachedResponse cachedResponse, RequestHeaders headers) {
+        response.contentType(MediaType.APPLICATION_JSON).varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if(acceptsGzip(headers))
+            return withBody(response.header(HttpHeaders.CONTENT_ENCODING, "gzip"), cachedResponse.gzip());
+
+        return withBody(response, cachedResponse.json());
+    }
+
+    /**
+     * The most preferred of the supported response types (JSON, CBOR and Arrow). The message converters make the
+     * same choice, but the writer has to know it up front for the ETag and the byte cache.
+     */
+    private MediaType getResponseType(RequestHeaders headers) {
+        String accept = headers.accept();
+        if(isBlank(accept))
+            return MediaType.APPLICATION_JSON;
+
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            MediaType.sortBySpecificityAndQuality(mediaTypes);
+            for (MediaType mediaType : mediaTypes) {
+                for (MediaType responseType : RESPONSE_TYPES) {
+                    if(mediaType.getQualityValue() > 0 && mediaType.isCompatibleWith(responseType))
+                        return responseType;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Left to the content negotiation
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private boolean acceptsGzip(RequestHeaders headers) {
+        String acceptEncoding = headers.acceptEncoding();
+        if(isBlank(acceptEncoding))
+            return false;
+
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+            if(parts[0].trim().equalsIgnoreCase("gzip"))
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+        }
+        return false;
+    }
+
+    /**
+     * FNV-1a over the 64 bit words of every field that is written to the body. The creation time is left out,
+     * so the same prices always have the same ETag.
+     */
+    private static String createETag(List<MarketDocument> marketDocuments, List<AreaCode> unavailableAreas, MediaType responseType) {
+        long hash = FNV_OFFSET_BASIS;
+        for (MarketDocument marketDocument : marketDocuments) {
+            hash = hash(hash, nonNull(marketDocument.getArea()) ? marketDocument.getArea().ordinal() : -1);
+            TimeInterval timeInterval = marketDocument.getTimeInterval();
+            hash = hash(hash, nonNull(timeInterval) ? timeInterval.getIntervalStart().toEpochSecond(ZoneOffset.UTC) : -1);
+            hash = hash(hash, nonNull(timeInterval) ? timeInterval.getIntervalEnd().toEpochSecond(ZoneOffset.UTC) : -1);
+            for (PriceSeries day : marketDocument.getIntervalDays()) {
+                hash = hash(hash, day.getStartEpochSecond());
+                hash = hash(hash, day.getResolutionMinutes());
+                hash = hash(hash, day.getCurrency());
+                hash = hash(hash, day.getMeasureUnit());
+                hash = hash(hash, day.size());
+                for (int i = 0; i < day.size(); i++)
+                    hash = hash(hash, Double.doubleToLongBits(day.getPrice(i)));
+            }
+        }
+        for (AreaCode area : unavailableAreas)
+            hash = hash(hash, ~area.ordinal());
+
+        // Every representation has its own ETag
+        String representation = MediaType.APPLICATION_JSON.equals(responseType) ? "" : "-" + responseType.getSubtype();
+        return "W/\"" + Long.toHexString(hash) + representation + "\"";
+    }
+
+    private static long hash(long hash, long value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    private static long hash(long hash, String value) {
+        if(isNull(value))
+            return hash(hash, -1);
+
+        hash = hash(hash, value.length());
+        for (int i = 0; i < value.length(); i++)
+            hash = hash(hash, value.charAt(i));
+        return hash;
+    }
+
+    private CacheControl getCacheControl(List<MarketDocument> marketDocuments) {
+        // Yesterday and later can still be corrected by ENTSO-E
+        LocalDate lastSettledDay = DateTimeUtils.getLastSettledDay(LocalDate.now(DateTimeUtils.MARKET_ZONE));
+        boolean settled = !marketDocuments.isEmpty() && marketDocuments.stream()
+                .allMatch(marketDocument -> !marketDocument.getTimeInterval().getIntervalEnd()
+                        .isAfter(DateTimeUtils.getDeliveryDayStart(lastSettledDay.plusDays(1))));
+
+        return settled ?
+                CacheControl.maxAge(settledMaxAge).cachePrivate() :
+                CacheControl.noCache().cachePrivate();
+    }
+
+    private boolean isNotModified(RequestHeaders headers, String eTag) {
+        String ifNoneMatch = headers.ifNoneMatch();
+        if(isBlank(ifNoneMatch))
+            return false;
+
+        // If-None-Match uses the weak comparison
+        String opaqueTag = eTag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if(tag.equals("*") || tag.equals(eTag) || tag.equals(opaqueTag))
+                return true;
+        }
+        return false;
+    }
+
+    private RequestHeaders getRequestHeaders() {
+        return new RequestHeaders(request.getHeader(HttpHeaders.ACCEPT), request.getHeader(HttpHeaders.ACCEPT_ENCODING),
+                request.getHeader(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    private <T> ResponseEntity<T> notModified(String eTag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    // The generated delegates fix the body type to the DTO, but the message converters serialize
+    // the runtime type of the body, so any body that writes the same JSON can be returned.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <T> ResponseEntity<T> withBody(ResponseEntity.BodyBuilder response, Object body) {
+        return (ResponseEntity) response.body(body);
+    }
+}
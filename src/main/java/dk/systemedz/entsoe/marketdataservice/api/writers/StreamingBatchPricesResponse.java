@@ -0,0 +1,31 @@
+package dk.systemedz.entsoe.marketdataservice.api.writers;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import dk.systemedz.entsoe.marketdataservice.domain.models.BatchMarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import lombok.Getter;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Batch response body, where every area is written by the PricesResponseSerializer.
+ * Produces the same JSON as BatchPricesResponseDto.
+ */
+@Getter
+@JsonPropertyOrder({ "prices", "unavailableAreas", "createdDateTime" })
+public class StreamingBatchPricesResponse {
+    private final List<StreamingPricesResponse> prices;
+    private final List<String> unavailableAreas;
+    private final String createdDateTime;
+
+    public StreamingBatchPricesResponse(BatchMarketDocument batchMarketDocument) {
+        this.prices = batchMarketDocument.getMarketDocuments().stream()
+                .map(StreamingPricesResponse::new)
+                .toList();
+        this.unavailableAreas = batchMarketDocument.getUnavailableAreas().stream()
+                .map(AreaCode::name)
+                .toList();
+        this.createdDateTime = batchMarketDocument.getCreatedDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+}
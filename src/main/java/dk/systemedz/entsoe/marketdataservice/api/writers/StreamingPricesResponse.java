@@ -0,0 +1,17 @@
+package dk.systemedz.entsoe.marketdataservice.api.writers;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Response body that is written directly from the MarketDocument by the PricesResponseSerializer,
+ * producing the same JSON as PricesResponseDto without building the DTO graph.
+ */
+@AllArgsConstructor
+@Getter
+@JsonSerialize(using = PricesResponseSerializer.class)
+public class StreamingPricesResponse {
+    private final MarketDocument marketDocument;
+}
@@ -0,0 +1,90 @@
+package dk.systemedz.entsoe.marketdataservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.service.PriceSegmentCache;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+@Configuration
+public class CacheConfiguration {
+
+    @Value("${entsoe.cache.maximum-size:64MB}")
+    private DataSize maximumSize;
+    @Value("${entsoe.cache.recent-ttl:PT1H}")
+    private Duration recentTtl;
+    @Value("${entsoe.cache.settled-ttl:P3650D}")
+    private Duration settledTtl;
+
+    /**
+     * The price cache is bounded by the size of the cached prices, not by the number of entries.
+     * Statistics are exported through the actuator cache metrics.
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PriceSegmentCache.CACHE_NAME, Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((Object key, Object value) -> value instanceof PriceSeries priceSeries ? priceSeries.getEstimatedSize() : 1024)
+                .expireAfter(new DeliveryDayExpiry(recentTtl, settledTtl, Clock.system(DateTimeUtils.MARKET_ZONE)))
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+
+    /**
+     * Yesterday and today can still be corrected by ENTSO-E and expire after the recent TTL, while settled days are
+     * kept for the settled TTL. A published day-ahead is kept until its delivery day starts, after which it is
+     * fetched again as today.
+     */
+    static class DeliveryDayExpiry implements Expiry<Object, Object> {
+
+        private final Duration recentTtl;
+        private final Duration settledTtl;
+        private final Clock clock;
+
+        DeliveryDayExpiry(Duration recentTtl, Duration settledTtl, Clock clock) {
+            this.recentTtl = recentTtl;
+            this.settledTtl = settledTtl;
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            if (!(key instanceof PriceSegmentCache.SegmentKey segmentKey))
+                return recentTtl.toNanos();
+
+            ZonedDateTime now = ZonedDateTime.now(clock.withZone(DateTimeUtils.MARKET_ZONE));
+            LocalDate today = now.toLocalDate();
+            if (segmentKey.deliveryDay().isBefore(today.minusDays(1)))
+                return settledTtl.toNanos();
+
+            if (segmentKey.deliveryDay().isAfter(today)) {
+                Duration untilDeliveryDay = Duration.between(now, segmentKey.deliveryDay().atStartOfDay(DateTimeUtils.MARKET_ZONE));
+                return Math.max(untilDeliveryDay.toNanos(), recentTtl.toNanos());
+            }
+            return recentTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package dk.systemedz.entsoe.marketdataservice.config;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+@Configuration
+public class ExecutorConfiguration {
+
+    @Value("${entsoe.fetch.parallelism:4}")
+    private int fetchParallelism;
+    @Value("${entsoe.subscription.send-parallelism:8}")
+    private int subscriptionSendParallelism;
+
+    /**
+     * Caches and stores the chunks fetched from ENTSO-E, and completes the requests that wait for them.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService entsoeFetchExecutor() {
+        return newExecutor("entsoe-fetch", fetchParallelism);
+    }
+
+    /**
+     * Writes the events of the price subscriptions, so a subscriber that does not read only blocks its own write.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService subscriptionSendExecutor() {
+        return newExecutor("subscription-send", subscriptionSendParallelism);
+    }
+
+    /**
+     * Runs the warm-up and the day-ahead retries of the CachingService, with a thread per area.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService prefetchScheduler() {
+        return Executors.newScheduledThreadPool(AreaCode.values().length, newThreadFactory("prefetch"));
+    }
+
+    /**
+     * Sends the heartbeats of the price subscriptions.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService subscriptionHeartbeatScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(newThreadFactory("subscription-heartbeat"));
+    }
+
+    /**
+     * Runs the @Scheduled jobs. Spring Boot only configures this scheduler when the context has no other
+     * ScheduledExecutorService, so it is declared next to the schedulers above.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("scheduling-");
+        return scheduler;
+    }
+
+    private ExecutorService newExecutor(String name, int threads) {
+        return Executors.newFixedThreadPool(threads, newThreadFactory(name));
+    }
+
+    private ThreadFactory newThreadFactory(String name) {
+        return new ThreadFactoryBuilder()
+                .setNameFormat(name + "-%d")
+                .setDaemon(true)
+                .build();
+    }
+}
@@ -1,20 +1,29 @@
 package dk.systemedz.entsoe.marketdataservice.config;
 
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
 import java.time.Duration;
 
 @Configuration
 public class RestConfiguration {
 
+    @Value("${entsoe.http.connect-timeout:PT30S}")
+    private Duration connectTimeout;
+
+    /**
+     * Non-blocking client for ENTSO-E. Keep-alive connections are pooled by the client, so repeated and
+     * concurrent calls reuse the TLS session. The client has no connection limit of its own: the EntsoeApiClient
+     * sends at most entsoe.fetch.parallelism requests at a time, which caps the connections to ENTSO-E.
+     * Responses are requested gzipped and decompressed by the EntsoeApiClient while they are parsed.
+     */
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder
-                .setConnectTimeout(Duration.ofSeconds(30))
-                .setReadTimeout(Duration.ofSeconds(30))
+    public HttpClient entsoeHttpClient() {
+        return HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
                 .build();
     }
 }
@@ -0,0 +1,20 @@
+package dk.systemedz.entsoe.marketdataservice.config.converts;
+
+import dk.systemedz.entsoe.marketdataservice.api.dto.ExportFormatDto;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+
+@Component
+public class ExportFormatDtoEnumCaseInsensitiveConverter implements Converter<String, ExportFormatDto> {
+
+    @Override
+    public ExportFormatDto convert(String format) {
+        if (format.isBlank())
+            return null;
+
+        return ExportFormatDto.valueOf(format.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,17 @@
+package dk.systemedz.entsoe.marketdataservice.domain.events;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Published when the day-ahead prices of an area have been fetched from ENTSO-E and cached.
+ */
+@Value
+public class DayAheadPricesPublishedEvent {
+    AreaCode area;
+    LocalDate deliveryDay;
+    PriceSeries intervalDay;
+}
@@ -0,0 +1,25 @@
+package dk.systemedz.entsoe.marketdataservice.domain.models;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class CheapestHours {
+    private LocalDateTime createdDateTime;
+    private AreaCode area;
+    private String currency;
+    private String measureUnit;
+    private TimeInterval timeInterval;
+    private List<PricePoint> cheapestHours;
+    private Double cheapestHoursMean;
+    private PriceBlock cheapestBlock;
+}
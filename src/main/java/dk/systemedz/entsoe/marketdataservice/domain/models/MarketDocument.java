@@ -17,5 +17,5 @@ public class MarketDocument {
     private LocalDateTime createdDateTime;
     private TimeInterval timeInterval;
     private AreaCode area;
-    private List<IntervalDay> intervalDays;
+    private List<PriceSeries> intervalDays;
 }
@@ -0,0 +1,13 @@
+package dk.systemedz.entsoe.marketdataservice.domain.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+@Builder
+public class PercentilePrice {
+    private int percentile;
+    private double price;
+}
@@ -0,0 +1,21 @@
+package dk.systemedz.entsoe.marketdataservice.domain.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+@Builder
+public class PriceAggregate {
+    private TimeInterval period;
+    private int count;
+    private Double mean;
+    private Double min;
+    private Double max;
+    private Double peakMean;
+    private Double offPeakMean;
+    private List<PercentilePrice> percentiles;
+}
@@ -5,7 +5,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @AllArgsConstructor
@@ -14,5 +13,5 @@ import java.time.LocalDateTime;
 @Builder
 public class PricePoint {
     private LocalDateTime hour;
-    private BigDecimal price;
+    private double price;
 }
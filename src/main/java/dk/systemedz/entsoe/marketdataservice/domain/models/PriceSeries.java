@@ -0,0 +1,65 @@
+package dk.systemedz.entsoe.marketdataservice.domain.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact price series for one area and delivery day: a start instant, a fixed resolution and one
+ * primitive price per position. Timestamps and PricePoints are derived on demand, so a cached day costs
+ * little more than its price array.
+ */
+@AllArgsConstructor
+@Getter
+@Builder
+public class PriceSeries {
+    private final String currency;
+    private final String measureUnit;
+    private final long startEpochSecond;
+    private final int resolutionMinutes;
+    private final double[] prices;
+
+    public int size() {
+        return prices.length;
+    }
+
+    public double getPrice(int index) {
+        return prices[index];
+    }
+
+    public long getEpochSecond(int index) {
+        return startEpochSecond + index * resolutionMinutes * 60L;
+    }
+
+    public long getEndEpochSecond() {
+        return getEpochSecond(prices.length);
+    }
+
+    public LocalDateTime getTime(int index) {
+        return LocalDateTime.ofEpochSecond(getEpochSecond(index), 0, ZoneOffset.UTC);
+    }
+
+    public TimeInterval getCurrentDateInterval() {
+        return new TimeInterval(getTime(0), getTime(prices.length));
+    }
+
+    /**
+     * Approximate heap size in bytes, used to bound the price cache.
+     */
+    public int getEstimatedSize() {
+        return 56 + 16 + prices.length * Double.BYTES;
+    }
+
+    public List<PricePoint> getHourPrices() {
+        List<PricePoint> hourPrices = new ArrayList<>(prices.length);
+        for (int i = 0; i < prices.length; i++)
+            hourPrices.add(new PricePoint(getTime(i), prices[i]));
+
+        return hourPrices;
+    }
+}
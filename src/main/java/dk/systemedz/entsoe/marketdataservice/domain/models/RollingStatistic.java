@@ -0,0 +1,19 @@
+package dk.systemedz.entsoe.marketdataservice.domain.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@Data
+@Builder
+public class RollingStatistic {
+    private LocalDate deliveryDay;
+    private int count;
+    private Double mean;
+    private Double standardDeviation;
+    private Double min;
+    private Double max;
+}
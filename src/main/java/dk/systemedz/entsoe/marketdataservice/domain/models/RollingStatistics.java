@@ -0,0 +1,23 @@
+package dk.systemedz.entsoe.marketdataservice.domain.models;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class RollingStatistics {
+    private LocalDateTime createdDateTime;
+    private AreaCode area;
+    private String currency;
+    private String measureUnit;
+    private int window;
+    private List<RollingStatistic> statistics;
+}
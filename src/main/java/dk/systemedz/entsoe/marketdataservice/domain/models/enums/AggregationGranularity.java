@@ -0,0 +1,7 @@
+package dk.systemedz.entsoe.marketdataservice.domain.models.enums;
+
+public enum AggregationGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+}
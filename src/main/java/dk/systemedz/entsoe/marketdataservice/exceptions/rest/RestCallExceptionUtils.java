@@ -0,0 +1,26 @@
+package dk.systemedz.entsoe.marketdataservice.exceptions.rest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.CompletionException;
+
+import static java.util.Objects.nonNull;
+
+@Slf4j
+public class RestCallExceptionUtils {
+
+    /**
+     * Maps the failure of a price request to the exception of the delegates, so the futures of the async delegates
+     * fail with the same exceptions as the synchronous delegates used to throw. A RestCallException of the services
+     * means that ENTSO-E has no data (204), anything else is logged and answered with 400.
+     */
+    public static RestCallException toRestCallException(Throwable e) {
+        Throwable cause = e instanceof CompletionException && nonNull(e.getCause()) ? e.getCause() : e;
+        if(cause instanceof RestCallException)
+            return new RestCallException("No data provided by ENTSO-E. Try another interval.", HttpStatus.NO_CONTENT);
+
+        log.error("Error:", cause);
+        return new RestCallException("Something went wrong", HttpStatus.BAD_REQUEST, cause);
+    }
+}
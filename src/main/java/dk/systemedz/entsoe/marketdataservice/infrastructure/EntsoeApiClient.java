@@ -1,34 +1,197 @@
 package dk.systemedz.entsoe.marketdataservice.infrastructure;
 
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.infrastructure.parser.PublicationMarketDocumentParser;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static java.util.Objects.nonNull;
 import static org.apache.commons.lang3.StringUtils.isAnyBlank;
 
+/**
+ * Non-blocking client for the ENTSO-E transparency API. No thread waits for ENTSO-E to answer, so slow
+ * ENTSO-E responses do not hold on to the request threads of the service. Once the headers are received, the body
+ * is streamed into the parser on a thread of the HTTP client, so a response is never buffered as a whole.
+ * At most entsoe.fetch.parallelism requests are sent and read at a time, the others are queued until a request
+ * completes. As every request in flight uses one connection, this also caps the connections to ENTSO-E.
+ * A period that ENTSO-E has no prices for results in an empty list. Other error responses fail the request with
+ * the same exceptions as a RestTemplate (e.g. HttpClientErrorException.Unauthorized for an invalid security token).
+ */
 @Service
 public class EntsoeApiClient {
 
+    private static final String NO_MATCHING_DATA = "No matching data found";
+
+    private record RequestKey(String securityToken, String areaCode, String start, String end) {}
+
     @Value("${entsoe.api-url}")
     private String BASE_URL;
     @Value("${entsoe.document-types.prices}")
     private String PRICES_TYPE;
+    @Value("${entsoe.http.timeout:PT30S}")
+    private Duration timeout;
 
-    private final RestTemplate restTemplate;
+    private final HttpClient httpClient;
+    private final PublicationMarketDocumentParser parser;
+    private final ConcurrentMap<RequestKey, CompletableFuture<List<PriceSeries>>> inFlightRequests = new ConcurrentHashMap<>();
+    private final Semaphore requestPermits;
+    private final Queue<Runnable> waitingRequests = new ConcurrentLinkedQueue<>();
 
-    public EntsoeApiClient(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    public EntsoeApiClient(HttpClient httpClient, PublicationMarketDocumentParser parser,
+                           @Value("${entsoe.fetch.parallelism:4}") int parallelism) {
+        this.httpClient = httpClient;
+        this.parser = parser;
+        this.requestPermits = new Semaphore(parallelism);
     }
 
-    @Cacheable(value = "pricedata", key = "{#areaCode,#start,#end}")
-    public String getByPeriodDefinition(String securityToken, String areaCode, String start, String end) {
+    /**
+     * Concurrent calls with the same security token, area and period share one upstream request (single-flight).
+     * The first caller sends the request, the others get the same future. Calls with different tokens never share
+     * a request, so an invalid or throttled token only fails its own calls.
+     */
+    public CompletableFuture<List<PriceSeries>> getByPeriodDefinition(String securityToken, String areaCode, String start, String end) {
         if(isAnyBlank(securityToken,areaCode,start,end))
-            throw new RuntimeException("Something went wrong!");
+            return CompletableFuture.failedFuture(new RuntimeException("Something went wrong!"));
+
+        RequestKey requestKey = new RequestKey(securityToken, areaCode, start, end);
+        CompletableFuture<List<PriceSeries>> request = new CompletableFuture<>();
+        CompletableFuture<List<PriceSeries>> inFlightRequest = inFlightRequests.putIfAbsent(requestKey, request);
+        if(inFlightRequest != null)
+            return inFlightRequest;
+
+        fetchByPeriodDefinition(securityToken, areaCode, start, end).whenComplete((days, e) -> {
+            inFlightRequests.remove(requestKey, request);
+            if(nonNull(e))
+                request.completeExceptionally(unwrap(e));
+            else
+                request.complete(days);
+        });
+        return request;
+    }
 
+    private CompletableFuture<List<PriceSeries>> fetchByPeriodDefinition(String securityToken, String areaCode, String start, String end) {
         String apiUrl = "%s?documentType=%s&securityToken=%s&in_Domain=%s&out_Domain=%s&periodStart=%s&periodEnd=%s"
                 .formatted(BASE_URL, PRICES_TYPE, securityToken, areaCode, areaCode, start, end);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl))
+                .timeout(timeout)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .GET()
+                .build();
+
+        // The body is parsed while it is received, and the permit is held until it has been read
+        return withPermit(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()).thenApply(this::parseResponse))
+                .handle((days, e) -> {
+                    if(nonNull(e)) {
+                        Throwable cause = unwrap(e);
+                        throw cause instanceof IOException ioException ? createIOException(ioException) : new CompletionException(cause);
+                    }
+                    return days;
+                });
+    }
+
+    /**
+     * Runs on a thread of the HTTP client once the response headers are received, and streams the (gunzipped)
+     * body into the parser. Only the short bodies of error responses are read completely.
+     */
+    private List<PriceSeries> parseResponse(HttpResponse<InputStream> response) {
+        boolean gzip = response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).filter("gzip"::equalsIgnoreCase).isPresent();
+        try (InputStream body = response.body();
+             InputStream in = gzip ? new GZIPInputStream(body) : body) {
+            if(response.statusCode() >= 400) {
+                byte[] errorBody = in.readAllBytes();
+                // ENTSO-E answers 400 with an Acknowledgement_MarketDocument (reason 999) when it has no prices for the period
+                if(response.statusCode() == HttpStatus.BAD_REQUEST.value() && isNoMatchingData(errorBody))
+                    return List.of();
+                throw createStatusException(response, errorBody);
+            }
+
+            return parser.parse(in);
+        } catch (IOException e) {
+            throw createIOException(e);
+        }
+    }
+
+    private static ResourceAccessException createIOException(IOException e) {
+        return new ResourceAccessException("I/O error on GET request to ENTSO-E: " + e.getMessage(), e);
+    }
+
+    private static boolean isNoMatchingData(byte[] body) {
+        return new String(body, StandardCharsets.UTF_8).contains(NO_MATCHING_DATA);
+    }
+
+    private static RuntimeException createStatusException(HttpResponse<?> response, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        HttpStatus status = HttpStatus.resolve(response.statusCode());
+        if(status == null)
+            return new UnknownHttpStatusCodeException(response.statusCode(), "", headers, body, StandardCharsets.UTF_8);
+
+        return status.is4xxClientError() ?
+                HttpClientErrorException.create(status, status.getReasonPhrase(), headers, body, StandardCharsets.UTF_8) :
+                HttpServerErrorException.create(status, status.getReasonPhrase(), headers, body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sends the request when one of the permits is free, otherwise when one of the pending requests completes.
+     */
+    private <T> CompletableFuture<T> withPermit(Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        waitingRequests.add(() -> {
+            CompletableFuture<T> response;
+            try {
+                response = request.get();
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((value, e) -> {
+                requestPermits.release();
+                sendWaitingRequests();
+                if(nonNull(e))
+                    result.completeExceptionally(e);
+                else
+                    result.complete(value);
+            });
+        });
+        sendWaitingRequests();
+        return result;
+    }
+
+    private void sendWaitingRequests() {
+        while (!waitingRequests.isEmpty() && requestPermits.tryAcquire()) {
+            Runnable request = waitingRequests.poll();
+            if(request == null)
+                requestPermits.release();
+            else
+                request.run();
+        }
+    }
 
-        return restTemplate.getForObject(apiUrl, String.class);
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && nonNull(e.getCause()) ? e.getCause() : e;
     }
 }
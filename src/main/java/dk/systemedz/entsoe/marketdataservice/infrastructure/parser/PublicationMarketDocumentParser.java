@@ -0,0 +1,149 @@
+package dk.systemedz.entsoe.marketdataservice.infrastructure.parser;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pull parser for the ENTSO-E Publication_MarketDocument (A44 - Day-ahead prices).
+ * Reads the response stream once and emits one PriceSeries per Period, without building an intermediate entity graph.
+ * An Acknowledgement_MarketDocument (no data for the requested period) results in an empty list.
+ * Positions left out of a Period (curveType A03) repeat the price of the previous position.
+ */
+@Component
+public class PublicationMarketDocumentParser {
+
+    private static final int DEFAULT_RESOLUTION_MINUTES = 60;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final XMLInputFactory xmlInputFactory;
+
+    public PublicationMarketDocumentParser() {
+        xmlInputFactory = XMLInputFactory.newFactory();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    public List<PriceSeries> parse(InputStream inputStream) throws IOException {
+        try {
+            XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(inputStream);
+            try {
+                return readPriceSeries(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | RuntimeException e) {
+            throw new IOException("Unable to parse ENTSO-E Publication_MarketDocument", e);
+        }
+    }
+
+    private List<PriceSeries> readPriceSeries(XMLStreamReader reader) throws XMLStreamException {
+        List<PriceSeries> priceSeries = new ArrayList<>();
+
+        String currency = null;
+        String measureUnit = null;
+        boolean inPeriod = false;
+        long periodStart = NO_TIME;
+        long periodEnd = NO_TIME;
+        int resolutionMinutes = DEFAULT_RESOLUTION_MINUTES;
+        double[] buffer = new double[100];
+        int maxPosition = 0;
+        int position = 0;
+        double amount = Double.NaN;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "TimeSeries" -> {
+                        currency = null;
+                        measureUnit = null;
+                    }
+                    case "currency_Unit.name" -> currency = reader.getElementText().trim().intern();
+                    case "price_Measure_Unit.name" -> measureUnit = reader.getElementText().trim().intern();
+                    case "Period" -> {
+                        inPeriod = true;
+                        periodStart = NO_TIME;
+                        periodEnd = NO_TIME;
+                        resolutionMinutes = DEFAULT_RESOLUTION_MINUTES;
+                        maxPosition = 0;
+                        Arrays.fill(buffer, Double.NaN);
+                    }
+                    // The document level 'period.timeInterval' also has start/end, but only the Period interval is used
+                    case "start" -> {
+                        if (inPeriod)
+                            periodStart = DateTimeUtils.parseEntsoeEpochSecond(reader.getElementText());
+                    }
+                    case "end" -> {
+                        if (inPeriod)
+                            periodEnd = DateTimeUtils.parseEntsoeEpochSecond(reader.getElementText());
+                    }
+                    case "resolution" -> resolutionMinutes = (int) Duration.parse(reader.getElementText().trim()).toMinutes();
+                    case "Point" -> {
+                        position = 0;
+                        amount = Double.NaN;
+                    }
+                    case "position" -> position = Integer.parseInt(reader.getElementText().trim());
+                    case "price.amount" -> amount = Double.parseDouble(reader.getElementText().trim());
+                    default -> { }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "Point" -> {
+                        if (position > 0) {
+                            if (position > buffer.length) {
+                                int oldLength = buffer.length;
+                                buffer = Arrays.copyOf(buffer, Math.max(position, oldLength * 2));
+                                Arrays.fill(buffer, oldLength, buffer.length, Double.NaN);
+                            }
+                            buffer[position - 1] = amount;
+                            maxPosition = Math.max(maxPosition, position);
+                        }
+                    }
+                    case "Period" -> {
+                        inPeriod = false;
+                        if (periodStart != NO_TIME && maxPosition > 0)
+                            priceSeries.add(createPriceSeries(currency, measureUnit, periodStart, periodEnd, resolutionMinutes, buffer, maxPosition));
+                    }
+                    default -> { }
+                }
+            }
+        }
+        return priceSeries;
+    }
+
+    private PriceSeries createPriceSeries(String currency, String measureUnit, long periodStart, long periodEnd,
+                                          int resolutionMinutes, double[] buffer, int maxPosition) {
+        int size = periodEnd != NO_TIME ?
+                (int) ((periodEnd - periodStart) / 60 / resolutionMinutes) : maxPosition;
+
+        double[] prices = new double[size];
+        double previous = Double.NaN;
+        for (int i = 0; i < size; i++) {
+            double price = i < buffer.length ? buffer[i] : Double.NaN;
+            prices[i] = Double.isNaN(price) ? previous : price;
+            previous = prices[i];
+        }
+
+        return PriceSeries.builder()
+                .currency(currency)
+                .measureUnit(measureUnit)
+                .startEpochSecond(periodStart)
+                .resolutionMinutes(resolutionMinutes)
+                .prices(prices)
+                .build();
+    }
+}
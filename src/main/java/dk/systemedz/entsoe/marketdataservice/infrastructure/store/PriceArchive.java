@@ -0,0 +1,276 @@
+package dk.systemedz.entsoe.marketdataservice.infrastructure.store;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Memory-mapped archive of hourly prices, one file per area ({path}/{areaCode}.arc).
+ * After a fixed size header, the file holds one double per hour since {@link #BASE_EPOCH_HOUR}, so the slot of
+ * an hour is found by an offset calculation and a range is a sequential read of the mapped file. Hours without
+ * a price are NaN. Only hourly series are archived, so a range is read at the resolution ENTSO-E provides it in;
+ * finer series are served from the cache, the price store or ENTSO-E.
+ * <p>
+ * Reads never create an archive: the file of an area is mapped read-only until the first write to it. Reads and
+ * writes are guarded by a read-write lock, so a read never sees a partly written day, and every write is forced
+ * to disk before the lock is released.
+ * <p>
+ * Header: magic (int), version (int), base epoch hour (long), capacity in hours (int), currency and measure unit
+ * (8 bytes US-ASCII each, zero padded). The currency and measure unit are taken from the first archived day and
+ * hold for every slot, a day in another currency or measure unit is not archived.
+ */
+@Slf4j
+@Component
+public class PriceArchive {
+
+    private static final int MAGIC = 0x45504152;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int UNIT_LENGTH = 8;
+    // 2015-01-01T00:00Z, ENTSO-E has no prices before April 2015
+    private static final long BASE_EPOCH_HOUR = 394464;
+    private static final int CAPACITY_HOURS = 40 * 8784;
+    private static final long ARCHIVE_SIZE = HEADER_SIZE + (long) CAPACITY_HOURS * Double.BYTES;
+    private static final String ARCHIVE_SUFFIX = ".arc";
+
+    @Value("${entsoe.archive.enabled:true}")
+    private boolean enabled;
+    @Value("${entsoe.archive.path:data/archive}")
+    private Path path;
+
+    private record Archive(FileChannel channel, MappedByteBuffer buffer, DoubleBuffer slots, boolean writable) {}
+
+    private final Map<String, Archive> archives = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            archives.values().forEach(archive -> {
+                try {
+                    archive.channel().close();
+                } catch (IOException e) {
+                    log.warn("Unable to close price archive", e);
+                }
+            });
+            archives.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reads the delivery days (both inclusive), if every hour of them is archived.
+     */
+    public Optional<List<PriceSeries>> getDays(String areaCode, LocalDate firstDay, LocalDate lastDay) {
+        if(!enabled)
+            return Optional.empty();
+
+        long firstHour = toEpochHour(firstDay);
+        long endHour = toEpochHour(lastDay.plusDays(1));
+        if(firstHour < BASE_EPOCH_HOUR || endHour - BASE_EPOCH_HOUR > CAPACITY_HOURS)
+            return Optional.empty();
+
+        lock.readLock().lock();
+        try {
+            Archive archive = archives.get(areaCode);
+            if(isNull(archive)) {
+                Path file = getFile(areaCode);
+                if(!Files.exists(file))
+                    return Optional.empty();
+                archive = archives.computeIfAbsent(areaCode, area -> openArchive(file, false));
+            }
+
+            DoubleBuffer slots = archive.slots();
+            for (long hour = firstHour; hour < endHour; hour++) {
+                if(Double.isNaN(slots.get((int) (hour - BASE_EPOCH_HOUR))))
+                    return Optional.empty();
+            }
+
+            String currency = readUnit(archive.buffer(), 24);
+            String measureUnit = readUnit(archive.buffer(), 24 + UNIT_LENGTH);
+            List<PriceSeries> days = new ArrayList<>();
+            for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                long dayStartHour = toEpochHour(day);
+                double[] prices = new double[(int) (toEpochHour(day.plusDays(1)) - dayStartHour)];
+                slots.get((int) (dayStartHour - BASE_EPOCH_HOUR), prices);
+
+                days.add(PriceSeries.builder()
+                        .currency(currency)
+                        .measureUnit(measureUnit)
+                        .startEpochSecond(dayStartHour * 3600)
+                        .resolutionMinutes(60)
+                        .prices(prices)
+                        .build());
+            }
+            return Optional.of(days);
+        } catch (UncheckedIOException e) {
+            log.warn("Unable to read {} from the price archive", areaCode, e);
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the prices of the hourly days into their slots, replacing any archived price.
+     * A failure is logged, as the archive only saves later ENTSO-E requests.
+     */
+    public void putAll(String areaCode, List<PriceSeries> days) {
+        if(!enabled)
+            return;
+
+        lock.writeLock().lock();
+        try {
+            Archive archive = archives.get(areaCode);
+            if(isNull(archive) || !archive.writable()) {
+                archive = openArchive(getFile(areaCode), true);
+                Archive readOnly = archives.put(areaCode, archive);
+                if(nonNull(readOnly))
+                    readOnly.channel().close();
+            }
+
+            int firstSlot = CAPACITY_HOURS;
+            int endSlot = 0;
+            for (PriceSeries day : days) {
+                long firstHour = day.getStartEpochSecond() / 3600;
+                if(day.getResolutionMinutes() != 60 || day.getStartEpochSecond() % 3600 != 0
+                        || firstHour < BASE_EPOCH_HOUR || firstHour + day.size() - BASE_EPOCH_HOUR > CAPACITY_HOURS) {
+                    log.debug("{} starting at {} can not be archived", areaCode, day.getTime(0));
+                    continue;
+                }
+                if(!hasArchiveUnits(archive.buffer(), day)) {
+                    log.warn("{} starting at {} is in {}/{}, which differs from the price archive", areaCode, day.getTime(0),
+                            day.getCurrency(), day.getMeasureUnit());
+                    continue;
+                }
+
+                int slot = (int) (firstHour - BASE_EPOCH_HOUR);
+                archive.slots().put(slot, day.getPrices());
+                firstSlot = Math.min(firstSlot, slot);
+                endSlot = Math.max(endSlot, slot + day.size());
+            }
+
+            if(firstSlot < endSlot) {
+                archive.buffer().force(0, HEADER_SIZE);
+                archive.buffer().force(HEADER_SIZE + firstSlot * Double.BYTES, (endSlot - firstSlot) * Double.BYTES);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Unable to write {} to the price archive", areaCode, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the currency and measure unit of an archive without them to the ones of the day.
+     * @return Whether the day has the currency and measure unit of the archive
+     */
+    private static boolean hasArchiveUnits(ByteBuffer buffer, PriceSeries day) {
+        if(isNull(day.getCurrency()) || isNull(day.getMeasureUnit()))
+            return false;
+
+        if(isNull(readUnit(buffer, 24))) {
+            writeUnit(buffer, 24, day.getCurrency());
+            writeUnit(buffer, 24 + UNIT_LENGTH, day.getMeasureUnit());
+        }
+        return day.getCurrency().equals(readUnit(buffer, 24)) && day.getMeasureUnit().equals(readUnit(buffer, 24 + UNIT_LENGTH));
+    }
+
+    private Path getFile(String areaCode) {
+        return path.resolve(areaCode + ARCHIVE_SUFFIX);
+    }
+
+    private static Archive openArchive(Path file, boolean writable) {
+        try {
+            if(writable)
+                Files.createDirectories(file.getParent());
+            FileChannel channel = writable ?
+                    FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE) :
+                    FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                boolean initialized = channel.size() >= ARCHIVE_SIZE;
+                if(!initialized && !writable)
+                    throw new IOException("Incomplete price archive " + file);
+
+                MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, ARCHIVE_SIZE);
+                if(!initialized || buffer.getInt(0) != MAGIC) {
+                    if(!writable)
+                        throw new IOException("Uninitialized price archive " + file);
+
+                    buffer.putInt(0, MAGIC)
+                            .putInt(4, VERSION)
+                            .putLong(8, BASE_EPOCH_HOUR)
+                            .putInt(16, CAPACITY_HOURS);
+                    DoubleBuffer slots = buffer.slice(HEADER_SIZE, CAPACITY_HOURS * Double.BYTES).asDoubleBuffer();
+                    for (int i = 0; i < CAPACITY_HOURS; i++)
+                        slots.put(i, Double.NaN);
+                    buffer.force();
+                } else if(buffer.getInt(4) != VERSION || buffer.getLong(8) != BASE_EPOCH_HOUR || buffer.getInt(16) != CAPACITY_HOURS) {
+                    throw new IOException("Incompatible price archive " + file);
+                }
+
+                return new Archive(channel, buffer, buffer.slice(HEADER_SIZE, CAPACITY_HOURS * Double.BYTES).asDoubleBuffer(), writable);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open price archive " + file, e);
+        }
+    }
+
+    private static long toEpochHour(LocalDate deliveryDay) {
+        return DateTimeUtils.getDeliveryDayStart(deliveryDay).toEpochSecond(ZoneOffset.UTC) / 3600;
+    }
+
+    private static String readUnit(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[UNIT_LENGTH];
+        buffer.get(offset, bytes);
+        int length = 0;
+        while (length < UNIT_LENGTH && bytes[length] != 0)
+            length++;
+
+        return length > 0 ? new String(bytes, 0, length, StandardCharsets.US_ASCII).intern() : null;
+    }
+
+    private static void writeUnit(ByteBuffer buffer, int offset, String unit) {
+        byte[] bytes = new byte[UNIT_LENGTH];
+        if(nonNull(unit)) {
+            byte[] unitBytes = unit.getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(unitBytes, 0, bytes, 0, Math.min(unitBytes.length, UNIT_LENGTH));
+        }
+        buffer.put(offset, bytes);
+    }
+}
@@ -0,0 +1,269 @@
+package dk.systemedz.entsoe.marketdataservice.infrastructure.store;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * File-backed price store, so fetched prices survive restarts.
+ * Every area has an append-only segment file per year ({path}/{areaCode}/{year}.seg) with one record per
+ * settled delivery day (see DateTimeUtils.getLastSettledDay), as only those are read back. A record that is appended
+ * later for the same day replaces the earlier one (corrections), and a day that has not changed is not appended again.
+ * The record index (area and day to file offset) is rebuilt by scanning the segment files on startup, and a
+ * record left incomplete by a crash is cut off.
+ * <p>
+ * Record layout: length (int, of the payload), payload, CRC32 of the payload (int). Payload: delivery day (long,
+ * epoch day), start (long, epoch second), resolution in minutes (int), currency and measure unit (short length +
+ * UTF-8), price count (int) and the prices (double).
+ */
+@Slf4j
+@Component
+public class PriceStore {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int MAX_RECORD_LENGTH = 1 << 20;
+
+    @Value("${entsoe.store.enabled:true}")
+    private boolean enabled;
+    @Value("${entsoe.store.path:data/prices}")
+    private Path path;
+
+    private record DayKey(String areaCode, LocalDate deliveryDay) {}
+    private record Location(Path segment, long offset, int length, int checksum) {}
+
+    private final Map<DayKey, Location> index = new ConcurrentHashMap<>();
+    private final Map<Path, FileChannel> channels = new ConcurrentHashMap<>();
+    private final Lock writeLock = new ReentrantLock();
+    private final Lock channelLock = new ReentrantLock();
+
+    @PostConstruct
+    public void open() throws IOException {
+        if(!enabled)
+            return;
+
+        Files.createDirectories(path);
+        try (Stream<Path> segments = Files.walk(path, 2)) {
+            for (Path segment : segments.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList())
+                indexSegment(segment.getParent().getFileName().toString(), segment);
+        }
+        log.info("Price store at {} opened with {} delivery day(s)", path.toAbsolutePath(), index.size());
+    }
+
+    @PreDestroy
+    public void close() {
+        channels.values().forEach(channel -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Unable to close price store segment", e);
+            }
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<PriceSeries> get(String areaCode, LocalDate deliveryDay) {
+        if(!enabled)
+            return Optional.empty();
+
+        Location location = index.get(new DayKey(areaCode, deliveryDay));
+        if(isNull(location))
+            return Optional.empty();
+
+        try {
+            ByteBuffer payload = ByteBuffer.allocate(location.length());
+            FileChannel channel = getChannel(location.segment());
+            while (payload.hasRemaining()) {
+                if(channel.read(payload, location.offset() + Integer.BYTES + payload.position()) < 0)
+                    throw new IOException("Unexpected end of segment " + location.segment());
+            }
+            return Optional.of(readPriceSeries(payload.flip()));
+        } catch (IOException e) {
+            log.warn("Unable to read {} on {} from the price store", areaCode, deliveryDay, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Appends the settled days to the segment files of the area, replacing any stored version of them that differs.
+     * A day that cannot be written is logged and skipped, as the store only saves later ENTSO-E requests.
+     */
+    public void putAll(String areaCode, List<PriceSeries> days) {
+        if(!enabled)
+            return;
+
+        writeLock.lock();
+        try {
+            writeAll(areaCode, days);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void writeAll(String areaCode, List<PriceSeries> days) {
+        LocalDate lastSettledDay = DateTimeUtils.getLastSettledDay(LocalDate.now(DateTimeUtils.MARKET_ZONE));
+        for (PriceSeries day : days) {
+            LocalDate deliveryDay = DateTimeUtils.getDeliveryDay(day.getTime(0));
+            if(deliveryDay.isAfter(lastSettledDay))
+                continue;
+
+            DayKey key = new DayKey(areaCode, deliveryDay);
+            ByteBuffer payload = writePriceSeries(deliveryDay, day);
+            int checksum = checksum(payload);
+            Location stored = index.get(key);
+            if(nonNull(stored) && stored.length() == payload.remaining() && stored.checksum() == checksum)
+                continue;
+
+            Path segment = path.resolve(areaCode).resolve(deliveryDay.getYear() + SEGMENT_SUFFIX);
+            try {
+                ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + payload.remaining() + Integer.BYTES)
+                        .putInt(payload.remaining())
+                        .put(payload.duplicate())
+                        .putInt(checksum)
+                        .flip();
+
+                FileChannel channel = getChannel(segment);
+                long offset = channel.size();
+                try {
+                    while (record.hasRemaining())
+                        channel.write(record, offset + record.position());
+                } catch (IOException e) {
+                    // An incomplete record would cut off the records appended after it on the next startup
+                    channel.truncate(offset);
+                    throw e;
+                }
+
+                index.put(key, new Location(segment, offset, payload.remaining(), checksum));
+            } catch (IOException e) {
+                log.warn("Unable to write {} on {} to the price store", areaCode, deliveryDay, e);
+            }
+        }
+    }
+
+    private void indexSegment(String areaCode, Path segment) throws IOException {
+        FileChannel channel = getChannel(segment);
+        long size = channel.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+
+        while (offset + Integer.BYTES <= size) {
+            header.clear();
+            channel.read(header, offset);
+            int length = header.flip().getInt();
+            if(length <= 0 || length > MAX_RECORD_LENGTH || offset + Integer.BYTES + length + Integer.BYTES > size)
+                break;
+
+            ByteBuffer record = ByteBuffer.allocate(length + Integer.BYTES);
+            while (record.hasRemaining())
+                channel.read(record, offset + Integer.BYTES + record.position());
+            ByteBuffer payload = record.flip().slice(0, length);
+            int checksum = record.getInt(length);
+            if(checksum(payload) != checksum)
+                break;
+
+            LocalDate deliveryDay = LocalDate.ofEpochDay(payload.getLong(0));
+            index.put(new DayKey(areaCode, deliveryDay), new Location(segment, offset, length, checksum));
+            offset += Integer.BYTES + length + Integer.BYTES;
+        }
+
+        if(offset < size) {
+            log.warn("Cutting off incomplete record at offset {} of {}", offset, segment);
+            channel.truncate(offset);
+        }
+    }
+
+    private FileChannel getChannel(Path segment) throws IOException {
+        FileChannel channel = channels.get(segment);
+        if(nonNull(channel))
+            return channel;
+
+        // Kept apart from the write lock, so reads that open a segment do not wait for a write to finish
+        channelLock.lock();
+        try {
+            channel = channels.get(segment);
+            if(isNull(channel)) {
+                Files.createDirectories(segment.getParent());
+                channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channels.put(segment, channel);
+            }
+            return channel;
+        } finally {
+            channelLock.unlock();
+        }
+    }
+
+    private static ByteBuffer writePriceSeries(LocalDate deliveryDay, PriceSeries priceSeries) {
+        byte[] currency = nonNull(priceSeries.getCurrency()) ? priceSeries.getCurrency().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        byte[] measureUnit = nonNull(priceSeries.getMeasureUnit()) ? priceSeries.getMeasureUnit().getBytes(StandardCharsets.UTF_8) : new byte[0];
+
+        ByteBuffer payload = ByteBuffer.allocate(Long.BYTES + Long.BYTES + Integer.BYTES
+                + Short.BYTES + currency.length + Short.BYTES + measureUnit.length
+                + Integer.BYTES + priceSeries.size() * Double.BYTES);
+        payload.putLong(deliveryDay.toEpochDay())
+                .putLong(priceSeries.getStartEpochSecond())
+                .putInt(priceSeries.getResolutionMinutes())
+                .putShort((short) currency.length).put(currency)
+                .putShort((short) measureUnit.length).put(measureUnit)
+                .putInt(priceSeries.size());
+        for (int i = 0; i < priceSeries.size(); i++)
+            payload.putDouble(priceSeries.getPrice(i));
+
+        return payload.flip();
+    }
+
+    private static PriceSeries readPriceSeries(ByteBuffer payload) {
+        payload.getLong();
+        long startEpochSecond = payload.getLong();
+        int resolutionMinutes = payload.getInt();
+        String currency = readString(payload);
+        String measureUnit = readString(payload);
+        double[] prices = new double[payload.getInt()];
+        payload.asDoubleBuffer().get(prices);
+
+        return PriceSeries.builder()
+                .currency(currency)
+                .measureUnit(measureUnit)
+                .startEpochSecond(startEpochSecond)
+                .resolutionMinutes(resolutionMinutes)
+                .prices(prices)
+                .build();
+    }
+
+    private static String readString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getShort()];
+        payload.get(bytes);
+        return bytes.length > 0 ? new String(bytes, StandardCharsets.UTF_8).intern() : null;
+    }
+
+    private static int checksum(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue();
+    }
+}
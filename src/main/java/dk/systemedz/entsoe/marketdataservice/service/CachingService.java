@@ -1,15 +1,118 @@
 package dk.systemedz.entsoe.marketdataservice.service;
 
-import lombok.RequiredArgsConstructor;
+import dk.systemedz.entsoe.marketdataservice.domain.events.DayAheadPricesPublishedEvent;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the price cache warm, so requests for the current year and the day-ahead prices are served from memory.
+ * Both jobs require a service owned ENTSO-E security token (entsoe.prefetch.security-token). Without it, the days
+ * are fetched by the first request that needs them (tomorrow once it has been published).
+ * A {@link DayAheadPricesPublishedEvent} is published when the day-ahead prices of an area have been cached.
+ */
 @Slf4j
-@RequiredArgsConstructor
+@Service
 public class CachingService {
 
-    @Scheduled(cron = "10 13,23 * * * ?", zone = "Europe/Copenhagen")
-    @CacheEvict(value="pricedata", allEntries=true)
-    public void evictDayAhead() {}
+    private static final Duration INITIAL_RETRY_DELAY = Duration.ofMinutes(1);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(15);
+    private static final LocalTime RETRY_DEADLINE = LocalTime.of(23, 0);
+
+    @Value("${entsoe.prefetch.security-token:}")
+    private String securityToken;
+    @Value("${entsoe.prefetch.warm-up:true}")
+    private boolean warmUp;
+
+    private final EntsoeService entsoeService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScheduledExecutorService executor;
+    private final Clock clock;
+
+    @Autowired
+    public CachingService(EntsoeService entsoeService, ApplicationEventPublisher eventPublisher, ScheduledExecutorService prefetchScheduler) {
+        this(entsoeService, eventPublisher, prefetchScheduler, Clock.system(DateTimeUtils.MARKET_ZONE));
+    }
+
+    CachingService(EntsoeService entsoeService, ApplicationEventPublisher eventPublisher, ScheduledExecutorService executor, Clock clock) {
+        this.entsoeService = entsoeService;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    /**
+     * Loads the current year (until today) for all areas, without blocking the application startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpCurrentYear() {
+        if(!entsoeService.isPrefetchEnabled() || !warmUp)
+            return;
+
+        LocalDate today = LocalDate.now(clock);
+        for (AreaCode areaCode : AreaCode.values()) {
+            executor.execute(() -> {
+                try {
+                    entsoeService.loadMissingDays(securityToken, areaCode.getAreaCode(), today.withDayOfYear(1), today);
+                    log.info("Warm-up of {} completed", areaCode);
+                } catch (RuntimeException e) {
+                    log.warn("Warm-up of {} failed", areaCode, e);
+                }
+            });
+        }
+
+        if(LocalTime.now(clock).isAfter(DateTimeUtils.DAY_AHEAD_PUBLICATION_TIME))
+            prefetchDayAhead();
+    }
+
+    /**
+     * ENTSO-E publishes the day-ahead prices shortly before 13:00 CET. Every area is retried with backoff until
+     * tomorrow's prices are available, and the new day replaces the cached one in a single put.
+     */
+    @Scheduled(cron = "0 45 12 * * ?", zone = "Europe/Copenhagen")
+    public void prefetchDayAhead() {
+        if(!entsoeService.isPrefetchEnabled())
+            return;
+
+        LocalDate tomorrow = LocalDate.now(clock).plusDays(1);
+        for (AreaCode areaCode : AreaCode.values())
+            executor.execute(() -> prefetchDay(areaCode, tomorrow, INITIAL_RETRY_DELAY));
+    }
+
+    private void prefetchDay(AreaCode areaCode, LocalDate deliveryDay, Duration retryDelay) {
+        try {
+            List<PriceSeries> days = entsoeService.refreshDays(securityToken, areaCode.getAreaCode(), deliveryDay, deliveryDay);
+            if(!days.isEmpty()) {
+                log.info("Day-ahead prices for {} on {} are cached", areaCode, deliveryDay);
+                eventPublisher.publishEvent(new DayAheadPricesPublishedEvent(areaCode, deliveryDay, days.get(0)));
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Day-ahead prefetch for {} on {} failed", areaCode, deliveryDay, e);
+        }
+
+        if(LocalTime.now(clock).isAfter(RETRY_DEADLINE)) {
+            log.warn("Day-ahead prices for {} on {} were not published before {}", areaCode, deliveryDay, RETRY_DEADLINE);
+            return;
+        }
+
+        Duration nextDelay = retryDelay.multipliedBy(2).compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : retryDelay.multipliedBy(2);
+        executor.schedule(() -> prefetchDay(areaCode, deliveryDay, nextDelay), retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+    }
 }
@@ -1,44 +1,73 @@
 package dk.systemedz.entsoe.marketdataservice.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.dataformat.xml.JacksonXmlModule;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
-import com.fasterxml.jackson.module.jaxb.JaxbAnnotationModule;
 import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.TimeInterval;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
 import dk.systemedz.entsoe.marketdataservice.domain.models.enums.IntervalType;
 import dk.systemedz.entsoe.marketdataservice.domain.models.enums.QueryType;
 import dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallException;
 import dk.systemedz.entsoe.marketdataservice.infrastructure.EntsoeApiClient;
-import dk.systemedz.entsoe.marketdataservice.infrastructure.entity.PublicationMarketDocument;
-import dk.systemedz.entsoe.marketdataservice.service.mappers.EntityMapper;
+import dk.systemedz.entsoe.marketdataservice.infrastructure.store.PriceArchive;
+import dk.systemedz.entsoe.marketdataservice.infrastructure.store.PriceStore;
 import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.tuple.Pair;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.WeekFields;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
-import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class EntsoeService {
 
+    @Value("${entsoe.prefetch.security-token:}")
+    private String prefetchSecurityToken;
+    @Value("${entsoe.fetch.chunk-size:P1M}")
+    private Period chunkSize;
+
     private final EntsoeApiClient entsoeApiClient;
-    private final EntityMapper mapper;
+    private final PriceSegmentCache segmentCache;
+    private final PriceStore priceStore;
+    private final PriceArchive priceArchive;
+    private final RollingStatisticsIndex rollingStatisticsIndex;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService entsoeFetchExecutor;
 
     public MarketDocument getPricesFromEntsoeApi(String securityToken, String areaCode, Map<String,String> params, QueryType queryType) throws RestCallException {
+        return join(getPricesFromEntsoeApiAsync(securityToken, areaCode, params, queryType));
+    }
 
+    /**
+     * Non-blocking variant of {@link #getPricesFromEntsoeApi}. The future completes right away when every day is
+     * cached, stored or archived, otherwise when the missing days have been fetched. Any failure, including invalid
+     * parameters, completes the future exceptionally.
+     */
+    public CompletableFuture<MarketDocument> getPricesFromEntsoeApiAsync(String securityToken, String areaCode, Map<String,String> params, QueryType queryType) {
         try {
             Pair<String, String> dateInterval = switch (queryType) {
                 case DATETIME -> getDateIntervalByDateRange(params.get("from"), params.get("to"));
@@ -46,27 +75,205 @@ public class EntsoeService {
                 case FIXED -> getDateIntervalByFixedInterval(params.get("year"), params.get("month"), params.get("week"));
             };
 
-            JacksonXmlModule module = new JacksonXmlModule();
-            module.setDefaultUseWrapper(false);
+            // ENTSO-E returns every delivery day that overlaps [periodStart, periodEnd)
+            LocalDate firstDay = DateTimeUtils.getDeliveryDay(DateTimeUtils.parseEntsoeQueryDateTime(dateInterval.getLeft()));
+            LocalDate lastDay = DateTimeUtils.getDeliveryDay(DateTimeUtils.parseEntsoeQueryDateTime(dateInterval.getRight()).minusMinutes(1));
+
+            // Settled date ranges are read straight from the archive, when every hour of them is archived
+            if(queryType == QueryType.DATETIME && priceArchive.isEnabled() && !lastDay.isAfter(DateTimeUtils.getLastSettledDay(LocalDate.now(DateTimeUtils.MARKET_ZONE)))) {
+                Optional<List<PriceSeries>> archivedDays = priceArchive.getDays(areaCode, firstDay, lastDay);
+                if(archivedDays.isPresent())
+                    return CompletableFuture.completedFuture(createMarketDocument(areaCode, archivedDays.get()));
+            }
+
+            return getPriceSeriesAsync(securityToken, areaCode, firstDay, lastDay).thenApply(intervalDays -> {
+                if(intervalDays.isEmpty())
+                    throw new RestCallException("No data provided by ENTSO-E. Try another interval.", HttpStatus.NO_CONTENT);
 
-            XmlMapper xmlMapper = new XmlMapper(module);
-            xmlMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-            xmlMapper.registerModule(new JaxbAnnotationModule());
+                return createMarketDocument(areaCode, intervalDays);
+            });
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-            String apiResponse = getDataByPeriod(securityToken,areaCode,dateInterval.getLeft(),dateInterval.getRight());
-            PublicationMarketDocument document = xmlMapper
-                    .readValue(apiResponse, PublicationMarketDocument.class);
+    private MarketDocument createMarketDocument(String areaCode, List<PriceSeries> intervalDays) {
+        return MarketDocument.builder()
+                .createdDateTime(LocalDateTime.now())
+                .area(AreaCode.getAreaCodeByValue(areaCode).orElse(null))
+                .timeInterval(TimeInterval.builder()
+                        .intervalStart(intervalDays.get(0).getCurrentDateInterval().getIntervalStart())
+                        .intervalEnd(intervalDays.get(intervalDays.size()-1).getCurrentDateInterval().getIntervalEnd())
+                        .build())
+                .intervalDays(intervalDays)
+                .build();
+    }
 
-            prepareDocument(document, areaCode);
+    /**
+     * Collects the delivery days (both inclusive) that ENTSO-E has prices for, fetching the days that are not cached yet.
+     */
+    public List<PriceSeries> getPriceSeries(String securityToken, String areaCode, LocalDate firstDay, LocalDate lastDay) {
+        return join(getPriceSeriesAsync(securityToken, areaCode, firstDay, lastDay));
+    }
 
-            MarketDocument marketDocument = mapper.mapMarketDocument(document);
+    /**
+     * Non-blocking variant of {@link #getPriceSeries}. ENTSO-E answering that it has no prices for a missing range
+     * is not a failure, the days are left out.
+     */
+    public CompletableFuture<List<PriceSeries>> getPriceSeriesAsync(String securityToken, String areaCode, LocalDate firstDay, LocalDate lastDay) {
+        NavigableMap<LocalDate, PriceSeries> days = segmentCache.getDays(areaCode, firstDay, lastDay);
 
-            if(isNull(marketDocument.getIntervalDays()) || marketDocument.getIntervalDays().isEmpty())
-                throw new RestCallException("No data provided by ENTSO-E. Try another interval.", HttpStatus.NO_CONTENT);
+        return loadMissingDaysAsync(securityToken, areaCode, days, firstDay, getLastFetchDay(lastDay))
+                .thenApply(loadedDays -> {
+                    loadedDays.forEach(day -> days.put(PriceSegmentCache.getDeliveryDay(day), day));
+                    return new ArrayList<>(days.subMap(firstDay, true, lastDay, true).values());
+                });
+    }
 
-            return marketDocument;
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
+    /**
+     * Reads the delivery days (both inclusive) for a bulk export without filling the price cache, so an export does
+     * not evict the days of the price requests. Cached days are used as they are, settled days are read from the
+     * archive or the price store, and the remaining days are fetched from ENTSO-E and only stored.
+     */
+    public List<PriceSeries> getExportPriceSeries(String securityToken, String areaCode, LocalDate firstDay, LocalDate lastDay) {
+        LocalDate lastSettledDay = DateTimeUtils.getLastSettledDay(LocalDate.now(DateTimeUtils.MARKET_ZONE));
+        if(priceArchive.isEnabled() && !lastDay.isAfter(lastSettledDay)) {
+            Optional<List<PriceSeries>> archivedDays = priceArchive.getDays(areaCode, firstDay, lastDay);
+            if(archivedDays.isPresent())
+                return archivedDays.get();
+        }
+
+        NavigableMap<LocalDate, PriceSeries> days = segmentCache.getDays(areaCode, firstDay, lastDay);
+        if(priceStore.isEnabled()) {
+            for (LocalDate day = firstDay; !day.isAfter(lastDay) && !day.isAfter(lastSettledDay); day = day.plusDays(1)) {
+                if(!days.containsKey(day))
+                    priceStore.get(areaCode, day).ifPresent(storedDay -> days.put(PriceSegmentCache.getDeliveryDay(storedDay), storedDay));
+            }
+        }
+
+        LocalDate lastFetchDay = getLastFetchDay(lastDay);
+        if(!firstDay.isAfter(lastFetchDay)) {
+            List<CompletableFuture<List<PriceSeries>>> ranges = PriceSegmentCache.findMissingRanges(days.keySet(), firstDay, lastFetchDay).stream()
+                    .map(range -> fetchDaysAsync(securityToken, areaCode, range.getLeft(), range.getRight(), false))
+                    .toList();
+            ranges.forEach(range -> join(range).forEach(day -> days.put(PriceSegmentCache.getDeliveryDay(day), day)));
+        }
+        return new ArrayList<>(days.subMap(firstDay, true, lastDay, true).values());
+    }
+
+    /**
+     * Days after the last published day (tomorrow before the day-ahead publication, see
+     * {@link DateTimeUtils#getLastPublishedDay}) are never requested from ENTSO-E, as it has no prices for them yet.
+     * A published day-ahead that is missing, e.g. because the prefetch has not run or failed, is fetched by the request.
+     */
+    private LocalDate getLastFetchDay(LocalDate lastDay) {
+        LocalDate lastPublishedDay = DateTimeUtils.getLastPublishedDay(ZonedDateTime.now(DateTimeUtils.MARKET_ZONE));
+        return lastDay.isAfter(lastPublishedDay) ? lastPublishedDay : lastDay;
+    }
+
+    public boolean isPrefetchEnabled() {
+        return isNotBlank(prefetchSecurityToken);
+    }
+
+    /**
+     * Fetches the delivery days (both inclusive) that are not cached yet.
+     */
+    public void loadMissingDays(String securityToken, String areaCode, LocalDate firstDay, LocalDate lastDay) {
+        join(loadMissingDaysAsync(securityToken, areaCode, segmentCache.getDays(areaCode, firstDay, lastDay), firstDay, lastDay));
+    }
+
+    /**
+     * Settled days are loaded from the price store when available, the remaining missing ranges are split into chunks
+     * (entsoe.fetch.chunk-size), which are requested concurrently and cached day by day as each chunk completes.
+     * The EntsoeApiClient bounds the number of concurrent ENTSO-E requests.
+     * @param cachedDays The cached days of the range, as returned by the PriceSegmentCache
+     * @return The days that have been loaded from the price store or ENTSO-E
+     */
+    private CompletableFuture<List<PriceSeries>> loadMissingDaysAsync(String securityToken, String areaCode,
+                                                                     Map<LocalDate, PriceSeries> cachedDays, LocalDate firstDay, LocalDate lastDay) {
+        if(firstDay.isAfter(lastDay))
+            return CompletableFuture.completedFuture(List.of());
+
+        List<Pair<LocalDate, LocalDate>> missingRanges = PriceSegmentCache.findMissingRanges(cachedDays.keySet(), firstDay, lastDay);
+        List<PriceSeries> storedDays = priceStore.isEnabled() && !missingRanges.isEmpty() ?
+                loadStoredDays(areaCode, missingRanges) : List.of();
+        if(!storedDays.isEmpty()) {
+            Set<LocalDate> presentDays = new HashSet<>(cachedDays.keySet());
+            storedDays.forEach(day -> presentDays.add(PriceSegmentCache.getDeliveryDay(day)));
+            missingRanges = PriceSegmentCache.findMissingRanges(presentDays, firstDay, lastDay);
+        }
+
+        List<CompletableFuture<List<PriceSeries>>> chunks = new ArrayList<>();
+        for (Pair<LocalDate, LocalDate> range : missingRanges) {
+            for (LocalDate chunkStart = range.getLeft(); !chunkStart.isAfter(range.getRight()); ) {
+                LocalDate chunkEnd = chunkStart.plus(chunkSize).minusDays(1);
+                chunkEnd = chunkEnd.isBefore(range.getRight()) ? chunkEnd : range.getRight();
+                chunks.add(fetchDaysAsync(securityToken, areaCode, chunkStart, chunkEnd, true));
+                chunkStart = chunkEnd.plusDays(1);
+            }
+        }
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).thenApply(fetched -> {
+            List<PriceSeries> loadedDays = new ArrayList<>(storedDays);
+            chunks.forEach(chunk -> loadedDays.addAll(chunk.join()));
+            return loadedDays;
+        });
+    }
+
+    /**
+     * Loads the settled days of the missing ranges from the price store into the cache.
+     * Yesterday and later can still be corrected by ENTSO-E, so they are always fetched again.
+     * @return The days that have been loaded
+     */
+    private List<PriceSeries> loadStoredDays(String areaCode, List<Pair<LocalDate, LocalDate>> missingRanges) {
+        LocalDate lastSettledDay = DateTimeUtils.getLastSettledDay(LocalDate.now(DateTimeUtils.MARKET_ZONE));
+        List<PriceSeries> storedDays = new ArrayList<>();
+
+        for (Pair<LocalDate, LocalDate> range : missingRanges) {
+            for (LocalDate day = range.getLeft(); !day.isAfter(range.getRight()) && !day.isAfter(lastSettledDay); day = day.plusDays(1))
+                priceStore.get(areaCode, day).ifPresent(storedDays::add);
+        }
+        storedDays.forEach(day -> segmentCache.put(areaCode, day));
+        rollingStatisticsIndex.putAll(areaCode, storedDays);
+        return storedDays;
+    }
+
+    /**
+     * Fetches the delivery days (both inclusive) from ENTSO-E, replacing any cached version of them.
+     * @return The delivery days provided by ENTSO-E
+     */
+    public List<PriceSeries> refreshDays(String securityToken, String areaCode, LocalDate firstDay, LocalDate lastDay) {
+        return join(fetchDaysAsync(securityToken, areaCode, firstDay, lastDay, true));
+    }
+
+    /**
+     * The response is cached and stored on the fetch executor, so the store and archive writes never run on
+     * the threads of the HTTP client.
+     * @param cache Whether the days are put into the price cache, which is left alone by exports
+     */
+    private CompletableFuture<List<PriceSeries>> fetchDaysAsync(String securityToken, String areaCode, LocalDate firstDay, LocalDate lastDay, boolean cache) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return entsoeApiClient.getByPeriodDefinition(securityToken, areaCode,
+                        DateTimeUtils.formatEntsoeQueryDateTime(DateTimeUtils.getDeliveryDayStart(firstDay)),
+                        DateTimeUtils.formatEntsoeQueryDateTime(DateTimeUtils.getDeliveryDayStart(lastDay.plusDays(1))))
+                .whenComplete((days, e) -> sample.stop(meterRegistry.timer("entsoe.cache.load", "cache", PriceSegmentCache.CACHE_NAME)))
+                .thenApplyAsync(days -> {
+                    // Each day is only put into the cache once it has been read completely
+                    if(cache)
+                        days.forEach(day -> segmentCache.put(areaCode, day));
+                    priceStore.putAll(areaCode, days);
+                    priceArchive.putAll(areaCode, days);
+                    rollingStatisticsIndex.putAll(areaCode, days);
+                    return days;
+                }, entsoeFetchExecutor);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
         }
     }
 
@@ -135,16 +342,4 @@ public class EntsoeService {
                 Pair.of(DateTimeUtils.createEntsoeQueryDateTime(intervalDate), DateTimeUtils.createEntsoeQueryDateTime(today)) :
                 Pair.of(DateTimeUtils.createEntsoeQueryDateTime(today), DateTimeUtils.createEntsoeQueryDateTime(intervalDate));
     }
-
-    private void prepareDocument(PublicationMarketDocument document, String areaCode) {
-        document.setArea(areaCode);
-        if(nonNull(document.getTimeSeries()) && !document.getTimeSeries().isEmpty())
-            document.getTimeSeries().forEach(s -> s.getPeriod().setPricePointHours());
-    }
-
-
-    @Cacheable(value = "pastyear", key = "{#areaCode,#start,#end}")
-    public String getDataByPeriod(String securityToken, String areaCode, String start, String end) {
-        return entsoeApiClient.getByPeriodDefinition(securityToken,areaCode,start,end);
-    }
 }
@@ -0,0 +1,171 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.AggregatedMarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PercentilePrice;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceAggregate;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.TimeInterval;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AggregationGranularity;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.QueryType;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Aggregates the prices of a period per day, week or month. The price series are read once, in order,
+ * and every aggregate is finished as soon as the next one starts.
+ */
+@Service
+@RequiredArgsConstructor
+public class PriceAggregationService {
+
+    public static final List<Integer> DEFAULT_PERCENTILES = List.of(10, 50, 90);
+
+    // Peak load (base/peak definition of the power exchanges): weekdays 08:00 - 20:00 local time
+    private static final int PEAK_START_HOUR = 8;
+    private static final int PEAK_END_HOUR = 20;
+
+    private final EntsoeService entsoeService;
+
+    /**
+     * The prices are aggregated on the thread that completes them, see {@link EntsoeService#getPricesFromEntsoeApiAsync}.
+     */
+    public CompletableFuture<AggregatedMarketDocument> getAggregatedPricesAsync(String securityToken, String areaCode, AggregationGranularity granularity,
+                                                                                Map<String,String> params, QueryType queryType, List<Integer> percentiles) {
+        return entsoeService.getPricesFromEntsoeApiAsync(securityToken, areaCode, params, queryType).thenApply(marketDocument -> {
+            List<PriceSeries> days = marketDocument.getIntervalDays();
+
+            return AggregatedMarketDocument.builder()
+                    .createdDateTime(LocalDateTime.now())
+                    .area(marketDocument.getArea())
+                    .granularity(granularity)
+                    .currency(days.get(0).getCurrency())
+                    .measureUnit(days.get(0).getMeasureUnit())
+                    .timeInterval(marketDocument.getTimeInterval())
+                    .aggregates(aggregate(days, granularity, isNull(percentiles) || percentiles.isEmpty() ? DEFAULT_PERCENTILES : percentiles))
+                    .build();
+        });
+    }
+
+    public List<PriceAggregate> aggregate(List<PriceSeries> days, AggregationGranularity granularity, List<Integer> percentiles) {
+        List<PriceAggregate> aggregates = new ArrayList<>();
+        ZoneRules zoneRules = DateTimeUtils.MARKET_ZONE.getRules();
+        Accumulator accumulator = new Accumulator();
+        LocalDate periodStart = null;
+
+        for (PriceSeries day : days) {
+            LocalDate dayPeriodStart = getPeriodStart(DateTimeUtils.getDeliveryDay(day.getTime(0)), granularity);
+            if(!dayPeriodStart.equals(periodStart)) {
+                if(accumulator.count > 0)
+                    aggregates.add(accumulator.finish(periodStart, getPeriodEnd(periodStart, granularity), percentiles));
+                periodStart = dayPeriodStart;
+                accumulator.reset();
+            }
+
+            for (int i = 0; i < day.size(); i++) {
+                double price = day.getPrice(i);
+                if(Double.isNaN(price))
+                    continue;
+
+                long epochSecond = day.getEpochSecond(i);
+                long localSecond = epochSecond + zoneRules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+                int hour = (int) Math.floorMod(localSecond, 86400L) / 3600;
+                // Epoch day 0 was a Thursday, so 0 - 4 are Monday - Friday
+                boolean weekday = Math.floorMod(Math.floorDiv(localSecond, 86400L) + 3, 7L) < 5;
+
+                accumulator.add(price, weekday && hour >= PEAK_START_HOUR && hour < PEAK_END_HOUR);
+            }
+        }
+        if(accumulator.count > 0)
+            aggregates.add(accumulator.finish(periodStart, getPeriodEnd(periodStart, granularity), percentiles));
+
+        return aggregates;
+    }
+
+    private LocalDate getPeriodStart(LocalDate deliveryDay, AggregationGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> deliveryDay;
+            case WEEK -> deliveryDay.minusDays(deliveryDay.getDayOfWeek().getValue() - 1L);
+            case MONTH -> deliveryDay.withDayOfMonth(1);
+        };
+    }
+
+    private LocalDate getPeriodEnd(LocalDate periodStart, AggregationGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> periodStart.plusDays(1);
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+        };
+    }
+
+    private static final class Accumulator {
+        private double[] prices = new double[31 * 24];
+        private int count;
+        private double sum;
+        private double min;
+        private double max;
+        private double peakSum;
+        private int peakCount;
+
+        private void reset() {
+            count = 0;
+            sum = 0;
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+            peakSum = 0;
+            peakCount = 0;
+        }
+
+        private void add(double price, boolean peak) {
+            if(count == prices.length)
+                prices = Arrays.copyOf(prices, count * 2);
+            prices[count++] = price;
+            sum += price;
+            min = Math.min(min, price);
+            max = Math.max(max, price);
+            if(peak) {
+                peakSum += price;
+                peakCount++;
+            }
+        }
+
+        private PriceAggregate finish(LocalDate periodStart, LocalDate periodEnd, List<Integer> percentiles) {
+            Arrays.sort(prices, 0, count);
+            List<PercentilePrice> percentilePrices = new ArrayList<>(percentiles.size());
+            for (int percentile : percentiles) {
+                // Linear interpolation between the closest ranks
+                double rank = percentile / 100.0 * (count - 1);
+                int lower = (int) Math.floor(rank);
+                int upper = (int) Math.ceil(rank);
+                percentilePrices.add(new PercentilePrice(percentile, prices[lower] + (rank - lower) * (prices[upper] - prices[lower])));
+            }
+
+            int offPeakCount = count - peakCount;
+            return PriceAggregate.builder()
+                    .period(TimeInterval.builder()
+                            .intervalStart(DateTimeUtils.getDeliveryDayStart(periodStart))
+                            .intervalEnd(DateTimeUtils.getDeliveryDayStart(periodEnd))
+                            .build())
+                    .count(count)
+                    .mean(sum / count)
+                    .min(min)
+                    .max(max)
+                    .peakMean(peakCount > 0 ? peakSum / peakCount : null)
+                    .offPeakMean(offPeakCount > 0 ? (sum - peakSum) / offPeakCount : null)
+                    .percentiles(percentilePrices)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.BatchMarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.QueryType;
+import dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Fetches the same period for several areas concurrently. Every area goes through EntsoeService, so the
+ * per-area day cache, chunking and request coalescing apply as for a single area request. No thread waits for
+ * the areas, the batch completes on the thread that completes the last area.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PriceBatchService {
+
+    private final EntsoeService entsoeService;
+
+    /**
+     * The future completes once every area has completed. Areas that ENTSO-E has no data for are listed as
+     * unavailable, any other failure of an area fails the batch.
+     */
+    public CompletableFuture<BatchMarketDocument> getPricesFromEntsoeApiAsync(String securityToken, List<AreaCode> areaCodes, Map<String,String> params, QueryType queryType) {
+        Map<AreaCode, CompletableFuture<MarketDocument>> requests = new LinkedHashMap<>();
+        for (AreaCode areaCode : areaCodes)
+            requests.computeIfAbsent(areaCode, area -> entsoeService.getPricesFromEntsoeApiAsync(securityToken, area.getAreaCode(), params, queryType));
+
+        // Waits for every area, also when one of them fails
+        CompletableFuture<?>[] completions = requests.values().stream()
+                .map(request -> request.handle((marketDocument, e) -> null))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(completions).thenApply(completed -> {
+            List<MarketDocument> marketDocuments = new ArrayList<>();
+            List<AreaCode> unavailableAreas = new ArrayList<>();
+            for (Map.Entry<AreaCode, CompletableFuture<MarketDocument>> request : requests.entrySet()) {
+                try {
+                    marketDocuments.add(request.getValue().join());
+                } catch (CompletionException e) {
+                    if(!(e.getCause() instanceof RestCallException))
+                        throw e;
+
+                    log.debug("No data provided by ENTSO-E for {}", request.getKey());
+                    unavailableAreas.add(request.getKey());
+                }
+            }
+
+            if(marketDocuments.isEmpty())
+                throw new RestCallException("No data provided by ENTSO-E. Try another interval.", HttpStatus.NO_CONTENT);
+
+            return BatchMarketDocument.builder()
+                    .createdDateTime(LocalDateTime.now())
+                    .marketDocuments(marketDocuments)
+                    .unavailableAreas(unavailableAreas)
+                    .build();
+        });
+    }
+}
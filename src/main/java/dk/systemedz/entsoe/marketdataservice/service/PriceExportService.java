@@ -0,0 +1,45 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads the prices of a bulk export chunk by chunk (entsoe.fetch.chunk-size), so only one chunk of one area
+ * is held by the export at a time. The chunks are read without filling the price cache (see
+ * {@link EntsoeService#getExportPriceSeries}). Periods that ENTSO-E has no prices for are left out, any other
+ * failure aborts the export.
+ */
+@Service
+@RequiredArgsConstructor
+public class PriceExportService {
+
+    @Value("${entsoe.fetch.chunk-size:P1M}")
+    private Period chunkSize;
+
+    private final EntsoeService entsoeService;
+
+    /**
+     * Passes the days of every area between the first and last day (both inclusive) to the consumer, in order
+     * of area and time.
+     */
+    public void export(String securityToken, List<AreaCode> areas, LocalDate firstDay, LocalDate lastDay,
+                       BiConsumer<AreaCode, List<PriceSeries>> chunkConsumer) {
+        for (AreaCode area : areas) {
+            for (LocalDate chunkStart = firstDay; !chunkStart.isAfter(lastDay); ) {
+                LocalDate chunkEnd = chunkStart.plus(chunkSize).minusDays(1);
+                chunkEnd = chunkEnd.isBefore(lastDay) ? chunkEnd : lastDay;
+
+                chunkConsumer.accept(area, entsoeService.getExportPriceSeries(securityToken, area.getAreaCode(), chunkStart, chunkEnd));
+                chunkStart = chunkEnd.plusDays(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.CheapestHours;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceBlock;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PricePoint;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.TimeInterval;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallException;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Finds the cheapest hours in a window of hourly prices, for scheduling flexible consumption.
+ * Prices with a finer resolution than an hour are averaged per hour first.
+ */
+@Service
+@RequiredArgsConstructor
+public class PriceScheduleService {
+
+    private final EntsoeService entsoeService;
+
+    /**
+     * The hours are searched on the thread that completes the prices, see {@link EntsoeService#getPriceSeriesAsync}.
+     * @param windowStart First hour to search (UTC)
+     * @param windowEnd End of the last hour to search (UTC, exclusive)
+     * @param hours Number of cheapest hours to find, or null
+     * @param blockLength Length of the cheapest contiguous block to find, or null
+     */
+    public CompletableFuture<CheapestHours> getCheapestHoursAsync(String securityToken, String areaCode, LocalDateTime windowStart, LocalDateTime windowEnd,
+                                                                  Integer hours, Integer blockLength) {
+        return entsoeService.getPriceSeriesAsync(securityToken, areaCode,
+                        DateTimeUtils.getDeliveryDay(windowStart), DateTimeUtils.getDeliveryDay(windowEnd.minusMinutes(1)))
+                .thenApply(days -> getCheapestHours(days, areaCode, windowStart, windowEnd, hours, blockLength));
+    }
+
+    private CheapestHours getCheapestHours(List<PriceSeries> days, String areaCode, LocalDateTime windowStart, LocalDateTime windowEnd,
+                                           Integer hours, Integer blockLength) throws RestCallException {
+        long firstHour = windowStart.toEpochSecond(ZoneOffset.UTC) / 3600;
+        double[] hourPrices = getHourPrices(days, firstHour, (int) (windowEnd.toEpochSecond(ZoneOffset.UTC) / 3600 - firstHour));
+        if(days.isEmpty() || Arrays.stream(hourPrices).allMatch(Double::isNaN))
+            throw new RestCallException("No data provided by ENTSO-E. Try another interval.", HttpStatus.NO_CONTENT);
+
+        CheapestHours.CheapestHoursBuilder cheapestHours = CheapestHours.builder()
+                .createdDateTime(LocalDateTime.now())
+                .area(AreaCode.getAreaCodeByValue(areaCode).orElse(null))
+                .currency(days.get(0).getCurrency())
+                .measureUnit(days.get(0).getMeasureUnit())
+                .timeInterval(TimeInterval.builder()
+                        .intervalStart(windowStart)
+                        .intervalEnd(windowEnd)
+                        .build());
+
+        if(nonNull(hours)) {
+            List<PricePoint> cheapest = new ArrayList<>();
+            double sum = 0;
+            for (int hour : findCheapestHours(hourPrices, hours)) {
+                cheapest.add(createPricePoint(firstHour + hour, hourPrices[hour]));
+                sum += hourPrices[hour];
+            }
+            cheapestHours.cheapestHours(cheapest)
+                    .cheapestHoursMean(cheapest.isEmpty() ? null : sum / cheapest.size());
+        }
+
+        if(nonNull(blockLength)) {
+            int blockStart = findCheapestBlock(hourPrices, blockLength);
+            if(blockStart >= 0) {
+                List<PricePoint> block = new ArrayList<>(blockLength);
+                double sum = 0;
+                for (int hour = blockStart; hour < blockStart + blockLength; hour++) {
+                    block.add(createPricePoint(firstHour + hour, hourPrices[hour]));
+                    sum += hourPrices[hour];
+                }
+                cheapestHours.cheapestBlock(PriceBlock.builder()
+                        .timeInterval(TimeInterval.builder()
+                                .intervalStart(toDateTime(firstHour + blockStart))
+                                .intervalEnd(toDateTime(firstHour + blockStart + blockLength))
+                                .build())
+                        .mean(sum / blockLength)
+                        .hourPrices(block)
+                        .build());
+            }
+        }
+
+        return cheapestHours.build();
+    }
+
+    /**
+     * Finds the cheapest hours with a bounded max-heap, which always holds the cheapest hours seen so far.
+     * @return Indexes of the cheapest hours (NaN hours are skipped), in order of time
+     */
+    static int[] findCheapestHours(double[] hourPrices, int count) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>(count + 1, (a, b) -> Double.compare(hourPrices[b], hourPrices[a]));
+        for (int hour = 0; hour < hourPrices.length; hour++) {
+            if(Double.isNaN(hourPrices[hour]))
+                continue;
+
+            if(heap.size() < count) {
+                heap.add(hour);
+            } else if(hourPrices[hour] < hourPrices[heap.peek()]) {
+                heap.poll();
+                heap.add(hour);
+            }
+        }
+
+        int[] cheapest = heap.stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(cheapest);
+        return cheapest;
+    }
+
+    /**
+     * Finds the cheapest block of contiguous hours with a sliding window sum. Blocks can not span an hour without a price.
+     * @return Index of the first hour of the cheapest block, or -1 if there is no such block
+     */
+    static int findCheapestBlock(double[] hourPrices, int length) {
+        int cheapestStart = -1;
+        double cheapestSum = Double.POSITIVE_INFINITY;
+        double windowSum = 0;
+        int windowLength = 0;
+
+        for (int hour = 0; hour < hourPrices.length; hour++) {
+            if(Double.isNaN(hourPrices[hour])) {
+                windowSum = 0;
+                windowLength = 0;
+                continue;
+            }
+
+            windowSum += hourPrices[hour];
+            if(++windowLength > length) {
+                windowSum -= hourPrices[hour - length];
+                windowLength = length;
+            }
+            if(windowLength == length && windowSum < cheapestSum) {
+                cheapestSum = windowSum;
+                cheapestStart = hour - length + 1;
+            }
+        }
+        return cheapestStart;
+    }
+
+    private double[] getHourPrices(List<PriceSeries> days, long firstHour, int hourCount) {
+        double[] sums = new double[hourCount];
+        int[] counts = new int[hourCount];
+
+        for (PriceSeries day : days) {
+            for (int i = 0; i < day.size(); i++) {
+                long hour = day.getEpochSecond(i) / 3600 - firstHour;
+                if(hour >= 0 && hour < hourCount && !Double.isNaN(day.getPrice(i))) {
+                    sums[(int) hour] += day.getPrice(i);
+                    counts[(int) hour]++;
+                }
+            }
+        }
+
+        double[] hourPrices = new double[hourCount];
+        for (int hour = 0; hour < hourCount; hour++)
+            hourPrices[hour] = counts[hour] > 0 ? sums[hour] / counts[hour] : Double.NaN;
+
+        return hourPrices;
+    }
+
+    private PricePoint createPricePoint(long epochHour, double price) {
+        return new PricePoint(toDateTime(epochHour), price);
+    }
+
+    private LocalDateTime toDateTime(long epochHour) {
+        return LocalDateTime.ofEpochSecond(epochHour * 3600, 0, ZoneOffset.UTC);
+    }
+}
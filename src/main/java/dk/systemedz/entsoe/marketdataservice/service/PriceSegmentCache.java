@@ -0,0 +1,105 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Stores prices as one segment per area and delivery day, so overlapping or rolling windows
+ * can be stitched together from days that have already been fetched from ENTSO-E.
+ */
+@Slf4j
+@Component
+public class PriceSegmentCache {
+
+    public static final String CACHE_NAME = "pricedata";
+
+    public record SegmentKey(String areaCode, LocalDate deliveryDay) {}
+
+    private final Cache cache;
+
+    public PriceSegmentCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    public Optional<PriceSeries> get(String areaCode, LocalDate deliveryDay) {
+        return Optional.ofNullable(cache.get(new SegmentKey(areaCode, deliveryDay), PriceSeries.class));
+    }
+
+    public void put(String areaCode, PriceSeries priceSeries) {
+        cache.put(new SegmentKey(areaCode, getDeliveryDay(priceSeries)), priceSeries);
+    }
+
+    /**
+     * Resolves how long the cached day is kept, so data derived from it can expire together with it.
+     * @return The remaining time, or empty when the day is not cached or the cache has no per entry expiry
+     */
+    public Optional<Duration> getExpiresAfter(String areaCode, LocalDate deliveryDay) {
+        if(!(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?>))
+            return Optional.empty();
+
+        @SuppressWarnings("unchecked")
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+        return nativeCache.policy().expireVariably()
+                .flatMap(expiration -> expiration.getExpiresAfter(new SegmentKey(areaCode, deliveryDay)));
+    }
+
+    public static LocalDate getDeliveryDay(PriceSeries priceSeries) {
+        return DateTimeUtils.getDeliveryDay(priceSeries.getTime(0));
+    }
+
+    /**
+     * Collects the cached days between the first and last delivery day (both inclusive). Every day is looked up
+     * once, so the cache statistics count one hit or miss per requested day.
+     * @return The cached days by delivery day, in order
+     */
+    public NavigableMap<LocalDate, PriceSeries> getDays(String areaCode, LocalDate firstDay, LocalDate lastDay) {
+        NavigableMap<LocalDate, PriceSeries> days = new TreeMap<>();
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            LocalDate deliveryDay = day;
+            get(areaCode, deliveryDay).ifPresent(priceSeries -> days.put(deliveryDay, priceSeries));
+        }
+        return days;
+    }
+
+    /**
+     * Finds the delivery days that are not present, merged into as few contiguous ranges as possible.
+     * @param presentDays Days that do not have to be loaded, e.g. the keys of {@link #getDays}
+     * @return Pairs of first/last missing delivery day (both inclusive)
+     */
+    public static List<Pair<LocalDate, LocalDate>> findMissingRanges(Set<LocalDate> presentDays, LocalDate firstDay, LocalDate lastDay) {
+        List<Pair<LocalDate, LocalDate>> ranges = new ArrayList<>();
+        LocalDate rangeStart = null;
+
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            boolean present = presentDays.contains(day);
+            if (!present && isNull(rangeStart)) {
+                rangeStart = day;
+            } else if (present && nonNull(rangeStart)) {
+                ranges.add(Pair.of(rangeStart, day.minusDays(1)));
+                rangeStart = null;
+            }
+        }
+        if (nonNull(rangeStart))
+            ranges.add(Pair.of(rangeStart, lastDay));
+
+        log.debug("{} missing range(s) between {} and {}", ranges.size(), firstDay, lastDay);
+        return ranges;
+    }
+}
@@ -0,0 +1,198 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.RollingStatistic;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Statistics index per area over the delivery days the service has loaded, so the mean, standard deviation,
+ * min and max of any range of days is answered in O(1).
+ * Every day adds its sum, sum of squares and count to prefix arrays, which are updated from the changed day
+ * onwards (a new day only updates the positions from the previous end). Min and max are answered by sparse tables over the daily
+ * min/max, which are rebuilt on the first query after a change.
+ */
+@Component
+public class RollingStatisticsIndex {
+
+    // 2015-01-01, ENTSO-E has no prices before April 2015
+    private static final long BASE_EPOCH_DAY = LocalDate.of(2015, 1, 1).toEpochDay();
+
+    private final Map<String, AreaIndex> areaIndexes = new ConcurrentHashMap<>();
+
+    public void putAll(String areaCode, List<PriceSeries> days) {
+        AreaIndex areaIndex = areaIndexes.computeIfAbsent(areaCode, area -> new AreaIndex());
+        areaIndex.lock.writeLock().lock();
+        try {
+            for (PriceSeries day : days)
+                areaIndex.put(day);
+        } finally {
+            areaIndex.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Calculates the statistics of the window ending on every delivery day between the first and last day (both inclusive).
+     * @param window Number of days in each window
+     */
+    public List<RollingStatistic> getRollingStatistics(String areaCode, LocalDate firstDay, LocalDate lastDay, int window) {
+        List<RollingStatistic> statistics = new ArrayList<>();
+        AreaIndex areaIndex = areaIndexes.get(areaCode);
+        if(isNull(areaIndex))
+            return statistics;
+
+        areaIndex.lock.readLock().lock();
+        if(areaIndex.sparseTablesDirty) {
+            // Only a query after a change rebuilds the sparse tables, the others share the read lock
+            areaIndex.lock.readLock().unlock();
+            areaIndex.lock.writeLock().lock();
+            try {
+                areaIndex.buildSparseTables();
+                areaIndex.lock.readLock().lock();
+            } finally {
+                areaIndex.lock.writeLock().unlock();
+            }
+        }
+        try {
+            for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                RollingStatistic statistic = areaIndex.getStatistic(day.minusDays(window - 1L), day);
+                if(statistic.getCount() > 0)
+                    statistics.add(statistic);
+            }
+        } finally {
+            areaIndex.lock.readLock().unlock();
+        }
+        return statistics;
+    }
+
+    private static final class AreaIndex {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private int size;
+        private double[] daySums = new double[0];
+        private double[] daySumSquares = new double[0];
+        private int[] dayCounts = new int[0];
+        private double[] dayMins = new double[0];
+        private double[] dayMaxs = new double[0];
+
+        // prefix[i] holds the total of the days before index i
+        private double[] prefixSums = new double[1];
+        private double[] prefixSumSquares = new double[1];
+        private long[] prefixCounts = new long[1];
+
+        private double[][] minTable = new double[0][];
+        private double[][] maxTable = new double[0][];
+        private boolean sparseTablesDirty;
+
+        private void put(PriceSeries day) {
+            int index = (int) (DateTimeUtils.getDeliveryDay(day.getTime(0)).toEpochDay() - BASE_EPOCH_DAY);
+            if(index < 0)
+                return;
+            ensureCapacity(index + 1);
+
+            double sum = 0, sumSquares = 0;
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            int count = 0;
+            for (int i = 0; i < day.size(); i++) {
+                double price = day.getPrice(i);
+                if(Double.isNaN(price))
+                    continue;
+
+                sum += price;
+                sumSquares += price * price;
+                min = Math.min(min, price);
+                max = Math.max(max, price);
+                count++;
+            }
+            daySums[index] = sum;
+            daySumSquares[index] = sumSquares;
+            dayCounts[index] = count;
+            dayMins[index] = min;
+            dayMaxs[index] = max;
+
+            // A day past the end also fills the prefixes of the days missing before it
+            int first = Math.min(index, size);
+            size = Math.max(size, index + 1);
+            for (int i = first; i < size; i++) {
+                prefixSums[i + 1] = prefixSums[i] + daySums[i];
+                prefixSumSquares[i + 1] = prefixSumSquares[i] + daySumSquares[i];
+                prefixCounts[i + 1] = prefixCounts[i] + dayCounts[i];
+            }
+            sparseTablesDirty = true;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if(capacity <= daySums.length)
+                return;
+
+            int length = Math.max(capacity, daySums.length * 2);
+            int oldLength = daySums.length;
+            daySums = Arrays.copyOf(daySums, length);
+            daySumSquares = Arrays.copyOf(daySumSquares, length);
+            dayCounts = Arrays.copyOf(dayCounts, length);
+            dayMins = Arrays.copyOf(dayMins, length);
+            dayMaxs = Arrays.copyOf(dayMaxs, length);
+            Arrays.fill(dayMins, oldLength, length, Double.POSITIVE_INFINITY);
+            Arrays.fill(dayMaxs, oldLength, length, Double.NEGATIVE_INFINITY);
+            prefixSums = Arrays.copyOf(prefixSums, length + 1);
+            prefixSumSquares = Arrays.copyOf(prefixSumSquares, length + 1);
+            prefixCounts = Arrays.copyOf(prefixCounts, length + 1);
+        }
+
+        private void buildSparseTables() {
+            if(!sparseTablesDirty)
+                return;
+
+            int levels = 32 - Integer.numberOfLeadingZeros(Math.max(size, 1));
+            minTable = new double[levels][];
+            maxTable = new double[levels][];
+            minTable[0] = Arrays.copyOf(dayMins, size);
+            maxTable[0] = Arrays.copyOf(dayMaxs, size);
+            for (int level = 1; level < levels; level++) {
+                int half = 1 << (level - 1);
+                int length = size - (1 << level) + 1;
+                minTable[level] = new double[length];
+                maxTable[level] = new double[length];
+                for (int i = 0; i < length; i++) {
+                    minTable[level][i] = Math.min(minTable[level - 1][i], minTable[level - 1][i + half]);
+                    maxTable[level][i] = Math.max(maxTable[level - 1][i], maxTable[level - 1][i + half]);
+                }
+            }
+            sparseTablesDirty = false;
+        }
+
+        private RollingStatistic getStatistic(LocalDate firstDay, LocalDate lastDay) {
+            int first = (int) Math.max(firstDay.toEpochDay() - BASE_EPOCH_DAY, 0);
+            int last = (int) Math.min(lastDay.toEpochDay() - BASE_EPOCH_DAY, size - 1L);
+            RollingStatistic.RollingStatisticBuilder statistic = RollingStatistic.builder().deliveryDay(lastDay);
+            if(first > last)
+                return statistic.count(0).build();
+
+            long count = prefixCounts[last + 1] - prefixCounts[first];
+            if(count == 0)
+                return statistic.count(0).build();
+
+            double mean = (prefixSums[last + 1] - prefixSums[first]) / count;
+            double variance = (prefixSumSquares[last + 1] - prefixSumSquares[first]) / count - mean * mean;
+            int level = 31 - Integer.numberOfLeadingZeros(last - first + 1);
+
+            return statistic
+                    .count((int) count)
+                    .mean(mean)
+                    .standardDeviation(Math.sqrt(Math.max(variance, 0)))
+                    .min(Math.min(minTable[level][first], minTable[level][last - (1 << level) + 1]))
+                    .max(Math.max(maxTable[level][first], maxTable[level][last - (1 << level) + 1]))
+                    .build();
+        }
+    }
+}
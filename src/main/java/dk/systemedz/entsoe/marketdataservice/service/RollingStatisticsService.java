@@ -0,0 +1,48 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.RollingStatistic;
+import dk.systemedz.entsoe.marketdataservice.domain.models.RollingStatistics;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+@RequiredArgsConstructor
+public class RollingStatisticsService {
+
+    private final EntsoeService entsoeService;
+    private final RollingStatisticsIndex rollingStatisticsIndex;
+
+    /**
+     * Calculates the statistics of the window (in days) ending on every delivery day between the first and last day.
+     * The days of the windows are loaded first, which also adds them to the rolling statistics index, and the
+     * statistics are calculated on the thread that completes them.
+     */
+    public CompletableFuture<RollingStatistics> getRollingStatisticsAsync(String securityToken, String areaCode, LocalDate firstDay, LocalDate lastDay, int window) {
+        return entsoeService.getPriceSeriesAsync(securityToken, areaCode, firstDay.minusDays(window - 1L), lastDay)
+                .thenApply(days -> getRollingStatistics(days, areaCode, firstDay, lastDay, window));
+    }
+
+    private RollingStatistics getRollingStatistics(List<PriceSeries> days, String areaCode, LocalDate firstDay, LocalDate lastDay, int window) throws RestCallException {
+        List<RollingStatistic> statistics = rollingStatisticsIndex.getRollingStatistics(areaCode, firstDay, lastDay, window);
+        if(days.isEmpty() || statistics.isEmpty())
+            throw new RestCallException("No data provided by ENTSO-E. Try another interval.", HttpStatus.NO_CONTENT);
+
+        return RollingStatistics.builder()
+                .createdDateTime(LocalDateTime.now())
+                .area(AreaCode.getAreaCodeByValue(areaCode).orElse(null))
+                .currency(days.get(0).getCurrency())
+                .measureUnit(days.get(0).getMeasureUnit())
+                .window(window)
+                .statistics(statistics)
+                .build();
+    }
+}
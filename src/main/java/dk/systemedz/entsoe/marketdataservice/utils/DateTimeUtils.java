@@ -4,8 +4,11 @@ import javax.validation.constraints.NotNull;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
@@ -17,6 +20,15 @@ public class DateTimeUtils {
 
     private static final DateTimeFormatter ENTSOE_DATE_TIME_PATTERN = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm'Z'");
 
+    public static final ZoneId MARKET_ZONE = ZoneId.of("Europe/Copenhagen"); // Day-ahead delivery days follow CET/CEST
+    public static final LocalTime DAY_AHEAD_PUBLICATION_TIME = LocalTime.of(12, 45); // ENTSO-E publishes tomorrow's prices shortly before 13:00
+
+    public static final int ISO_DATE_TIME_LENGTH = 19; // yyyy-MM-ddTHH:mm:ss
+
+    private static final int SECONDS_PER_DAY = 86400;
+    private static final int DAYS_PER_400_YEARS = 146097;
+    private static final int DAYS_0000_TO_1970 = 719468; // from 0000-03-01, so leap days fall at the end of a year
+
     public static LocalDateTime createLocalDateTimeNow() {
         return createLocalDateTimeFromString(null);
     }
@@ -46,7 +58,169 @@ public class DateTimeUtils {
         return setHours(localDateTime);
     }
 
+    /**
+     * ENTSO-E interval timestamp parser to LocalDateTime (UTC), keeping the time of day
+     * @param entsoeDateTime DateTime of format yyyy-MM-dd'T'HH:mm'Z' - e.g. 2022-06-24T22:00Z
+     * @return
+     */
+    public static LocalDateTime parseEntsoeIntervalDateTime(@NotNull String entsoeDateTime) {
+        return LocalDateTime.parse(entsoeDateTime.trim(), ENTSOE_DATE_TIME_PATTERN);
+    }
+
+    /**
+     * ENTSO-E interval timestamp parser to epoch seconds, without allocating. Falls back to
+     * {@link #parseEntsoeIntervalDateTime(String)} when the text is not exactly yyyy-MM-dd'T'HH:mm'Z'.
+     * @param entsoeDateTime DateTime of format yyyy-MM-dd'T'HH:mm'Z' - e.g. 2022-06-24T22:00Z
+     * @return Epoch second (UTC)
+     */
+    public static long parseEntsoeEpochSecond(@NotNull String entsoeDateTime) {
+        if(entsoeDateTime.length() != 17 || entsoeDateTime.charAt(4) != '-' || entsoeDateTime.charAt(7) != '-'
+                || entsoeDateTime.charAt(10) != 'T' || entsoeDateTime.charAt(13) != ':' || entsoeDateTime.charAt(16) != 'Z')
+            return parseEntsoeIntervalDateTime(entsoeDateTime).toEpochSecond(ZoneOffset.UTC);
+
+        int year = parseDigits(entsoeDateTime, 0, 4);
+        int month = parseDigits(entsoeDateTime, 5, 2);
+        int day = parseDigits(entsoeDateTime, 8, 2);
+        int hour = parseDigits(entsoeDateTime, 11, 2);
+        int minute = parseDigits(entsoeDateTime, 14, 2);
+        if(month < 1 || month > 12 || day < 1 || day > 28 && day > lengthOfMonth(year, month) || hour > 23 || minute > 59)
+            throw new DateTimeParseException("Invalid ENTSO-E date/time", entsoeDateTime, 0);
+
+        return toEpochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L;
+    }
+
+    /**
+     * Writes an epoch second as a UTC yyyy-MM-dd'T'HH:mm:ss timestamp (as ISO_LOCAL_DATE_TIME formats whole seconds)
+     * into the buffer, without allocating. Used by the writers, which format a timestamp per price.
+     * @param epochSecond Epoch second between the years 0 and 9999
+     * @return Number of chars written ({@link #ISO_DATE_TIME_LENGTH})
+     */
+    public static int formatIsoDateTime(long epochSecond, char[] buffer, int offset) {
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // Civil date from the day count, with years starting on March 1st
+        long days = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(days, DAYS_PER_400_YEARS);
+        int dayOfEra = (int) (days - era * DAYS_PER_400_YEARS);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = (int) (era * 400 + yearOfEra) + (month <= 2 ? 1 : 0);
+
+        writeDigits(buffer, offset, year, 4);
+        buffer[offset + 4] = '-';
+        writeDigits(buffer, offset + 5, month, 2);
+        buffer[offset + 7] = '-';
+        writeDigits(buffer, offset + 8, day, 2);
+        buffer[offset + 10] = 'T';
+        writeDigits(buffer, offset + 11, secondOfDay / 3600, 2);
+        buffer[offset + 13] = ':';
+        writeDigits(buffer, offset + 14, secondOfDay / 60 % 60, 2);
+        buffer[offset + 16] = ':';
+        writeDigits(buffer, offset + 17, secondOfDay % 60, 2);
+        return ISO_DATE_TIME_LENGTH;
+    }
+
+    /**
+     * Same output as formatting with ISO_LOCAL_DATE_TIME, but without the formatter for whole seconds.
+     */
+    public static String formatIsoDateTime(LocalDateTime localDateTime) {
+        if(localDateTime.getNano() != 0 || localDateTime.getYear() < 0 || localDateTime.getYear() > 9999)
+            return localDateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+
+        char[] buffer = new char[ISO_DATE_TIME_LENGTH];
+        return new String(buffer, 0, formatIsoDateTime(localDateTime.toEpochSecond(ZoneOffset.UTC), buffer, 0));
+    }
+
+    private static long toEpochDay(int year, int month, int day) {
+        int shiftedYear = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(shiftedYear, 400);
+        int yearOfEra = shiftedYear - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return (long) era * DAYS_PER_400_YEARS + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static int parseDigits(String text, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = text.charAt(i);
+            if(c < '0' || c > '9')
+                throw new DateTimeParseException("Invalid ENTSO-E date/time", text, i);
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
     public static String createEntsoeQueryDateTime(LocalDateTime localDateTime) {
         return setHours(localDateTime).format(ENTSOE_QUERY_DATE_TIME_PATTERN);
     }
+
+    public static LocalDateTime parseEntsoeQueryDateTime(String entsoeQueryDateTime) {
+        return LocalDateTime.parse(entsoeQueryDateTime.trim(), ENTSOE_QUERY_DATE_TIME_PATTERN);
+    }
+
+    public static String formatEntsoeQueryDateTime(LocalDateTime utcDateTime) {
+        return utcDateTime.format(ENTSOE_QUERY_DATE_TIME_PATTERN);
+    }
+
+    /**
+     * Resolves the market delivery day that a UTC timestamp falls within.
+     * @param utcDateTime UTC DateTime - e.g. 2022-06-24T22:00 (the start of June 25th in CEST)
+     * @return The delivery day in the market time zone
+     */
+    public static LocalDate getDeliveryDay(LocalDateTime utcDateTime) {
+        return utcDateTime.atOffset(ZoneOffset.UTC)
+                .atZoneSameInstant(MARKET_ZONE)
+                .toLocalDate();
+    }
+
+    /**
+     * Resolves the last delivery day that ENTSO-E can have day-ahead prices for.
+     * @param marketDateTime Current time in the market time zone
+     * @return Tomorrow from the day-ahead publication time, otherwise today
+     */
+    public static LocalDate getLastPublishedDay(ZonedDateTime marketDateTime) {
+        LocalDateTime localDateTime = marketDateTime.withZoneSameInstant(MARKET_ZONE).toLocalDateTime();
+        return localDateTime.toLocalTime().isBefore(DAY_AHEAD_PUBLICATION_TIME) ?
+                localDateTime.toLocalDate() : localDateTime.toLocalDate().plusDays(1);
+    }
+
+    /**
+     * Resolves the last delivery day that ENTSO-E no longer corrects.
+     * @param today Current delivery day in the market time zone
+     * @return The day before yesterday
+     */
+    public static LocalDate getLastSettledDay(LocalDate today) {
+        return today.minusDays(2);
+    }
+
+    /**
+     * Resolves the UTC timestamp at which a delivery day starts, e.g. 2022-06-25 -> 2022-06-24T22:00
+     * @param deliveryDay Delivery day in the market time zone
+     * @return UTC DateTime of the first hour of the delivery day
+     */
+    public static LocalDateTime getDeliveryDayStart(LocalDate deliveryDay) {
+        return deliveryDay.atStartOfDay(MARKET_ZONE)
+                .withZoneSameInstant(ZoneOffset.UTC)
+                .toLocalDateTime();
+    }
 }
@@ -0,0 +1,193 @@
+package dk.systemedz.entsoe.marketdataservice.api.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.systemedz.entsoe.marketdataservice.api.dto.AreaCodeDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.BatchPricesResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.PricesResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.mappers.DtoMapper;
+import dk.systemedz.entsoe.marketdataservice.api.writers.PricesResponseCache;
+import dk.systemedz.entsoe.marketdataservice.api.writers.PricesResponseWriter;
+import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.TimeInterval;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.QueryType;
+import dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallException;
+import dk.systemedz.entsoe.marketdataservice.service.EntsoeService;
+import dk.systemedz.entsoe.marketdataservice.service.PriceBatchService;
+import dk.systemedz.entsoe.marketdataservice.service.PriceSegmentCache;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The price delegates return before ENTSO-E has answered, and their futures fail with the same exceptions as the
+ * synchronous delegates used to throw.
+ */
+public class AsyncPriceDelegatesTest {
+
+    private static final LocalDate DELIVERY_DAY = LocalDate.of(2022, 10, 14);
+    private static final String FROM = "202210132200";
+    private static final String TO = "202210142200";
+
+    private final FakeEntsoeService entsoeService = new FakeEntsoeService();
+    private final PricesResponseWriter responseWriter = new PricesResponseWriter(Mappers.getMapper(DtoMapper.class),
+            new PricesResponseCache(new ObjectMapper(), new SimpleMeterRegistry(),
+                    new PriceSegmentCache(new CaffeineCacheManager(PriceSegmentCache.CACHE_NAME)), 16, Duration.ofHours(1)),
+            new MockHttpServletRequest());
+    private final PriceRangeController rangeController = new PriceRangeController(entsoeService, responseWriter);
+    private final PriceBatchController batchController = new PriceBatchController(new PriceBatchService(entsoeService), responseWriter);
+
+    public AsyncPriceDelegatesTest() {
+        ReflectionTestUtils.setField(responseWriter, "streaming", false);
+        ReflectionTestUtils.setField(responseWriter, "settledMaxAge", Duration.ofDays(30));
+    }
+
+    @Test
+    public void completesOnceEntsoeHasAnswered() throws Exception {
+        CompletableFuture<MarketDocument> prices = entsoeService.expect(AreaCode.DK1);
+
+        CompletableFuture<ResponseEntity<PricesResponseDto>> response = rangeController.getPricesByFromToDate(AreaCodeDto.DK1, FROM, TO, "token", null);
+        assertFalse(response.isDone());
+
+        prices.complete(createDocument(AreaCode.DK1));
+        assertEquals(HttpStatus.OK, response.join().getStatusCode());
+        assertEquals(AreaCode.DK1.getAreaCode(), response.join().getBody().getAreaCode());
+        assertEquals(Map.of("from", FROM.substring(0, 8), "to", TO.substring(0, 8)), entsoeService.params.get(AreaCode.DK1));
+    }
+
+    @Test
+    public void failsWithNoContentWhenEntsoeHasNoData() throws Exception {
+        CompletableFuture<MarketDocument> prices = entsoeService.expect(AreaCode.DK1);
+        CompletableFuture<ResponseEntity<PricesResponseDto>> response = rangeController.getPricesByFromToDate(AreaCodeDto.DK1, FROM, TO, "token", null);
+
+        prices.completeExceptionally(new RestCallException("No data provided by ENTSO-E. Try another interval.", HttpStatus.NO_CONTENT));
+
+        assertEquals(HttpStatus.NO_CONTENT, getFailure(response).getHttpStatus());
+    }
+
+    @Test
+    public void failsWithBadRequestWhenEntsoeFails() throws Exception {
+        CompletableFuture<MarketDocument> prices = entsoeService.expect(AreaCode.DK1);
+        CompletableFuture<ResponseEntity<PricesResponseDto>> response = rangeController.getPricesByFromToDate(AreaCodeDto.DK1, FROM, TO, "token", null);
+
+        prices.completeExceptionally(createUnauthorized());
+
+        RestCallException e = getFailure(response);
+        assertEquals(HttpStatus.BAD_REQUEST, e.getHttpStatus());
+        assertInstanceOf(HttpClientErrorException.Unauthorized.class, e.getCause());
+    }
+
+    @Test
+    public void rejectsInvalidParametersBeforeGoingAsync() {
+        RestCallException e = assertThrows(RestCallException.class,
+                () -> rangeController.getPricesByFromToDate(AreaCodeDto.DK1, FROM, TO, " ", null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getHttpStatus());
+        assertTrue(entsoeService.params.isEmpty());
+    }
+
+    @Test
+    public void completesBatchOnceEveryAreaHasAnswered() throws Exception {
+        CompletableFuture<MarketDocument> dk1 = entsoeService.expect(AreaCode.DK1);
+        CompletableFuture<MarketDocument> dk2 = entsoeService.expect(AreaCode.DK2);
+
+        CompletableFuture<ResponseEntity<BatchPricesResponseDto>> response = batchController.getPricesByAreas(
+                List.of(AreaCodeDto.DK1, AreaCodeDto.DK2), FROM, TO, null, null, null, null, null, "token", null);
+        dk2.completeExceptionally(new RestCallException("No data provided by ENTSO-E. Try another interval.", HttpStatus.NO_CONTENT));
+        assertFalse(response.isDone());
+
+        dk1.complete(createDocument(AreaCode.DK1));
+        BatchPricesResponseDto body = response.join().getBody();
+        assertEquals(1, body.getPrices().size());
+        assertEquals(List.of(AreaCodeDto.DK2), body.getUnavailableAreas());
+    }
+
+    @Test
+    public void failsBatchWhenAnAreaFails() throws Exception {
+        entsoeService.expect(AreaCode.DK1).complete(createDocument(AreaCode.DK1));
+        entsoeService.expect(AreaCode.DK2).completeExceptionally(createUnauthorized());
+
+        CompletableFuture<ResponseEntity<BatchPricesResponseDto>> response = batchController.getPricesByAreas(
+                List.of(AreaCodeDto.DK1, AreaCodeDto.DK2), FROM, TO, null, null, null, null, null, "token", null);
+
+        RestCallException e = getFailure(response);
+        assertEquals(HttpStatus.BAD_REQUEST, e.getHttpStatus());
+        assertInstanceOf(HttpClientErrorException.Unauthorized.class, e.getCause());
+    }
+
+    private static RestCallException getFailure(CompletableFuture<?> response) {
+        CompletionException e = assertThrows(CompletionException.class, response::join);
+        return assertInstanceOf(RestCallException.class, e.getCause());
+    }
+
+    private static HttpClientErrorException createUnauthorized() {
+        return HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", HttpHeaders.EMPTY, new byte[0], null);
+    }
+
+    private static MarketDocument createDocument(AreaCode area) {
+        PriceSeries day = PriceSeries.builder()
+                .currency("EUR")
+                .measureUnit("MWH")
+                .startEpochSecond(DateTimeUtils.getDeliveryDayStart(DELIVERY_DAY).toEpochSecond(ZoneOffset.UTC))
+                .resolutionMinutes(60)
+                .prices(new double[24])
+                .build();
+        return MarketDocument.builder()
+                .createdDateTime(LocalDateTime.now())
+                .area(area)
+                .timeInterval(TimeInterval.builder()
+                        .intervalStart(day.getCurrentDateInterval().getIntervalStart())
+                        .intervalEnd(day.getCurrentDateInterval().getIntervalEnd())
+                        .build())
+                .intervalDays(List.of(day))
+                .build();
+    }
+
+    /**
+     * Answers every area with the future that the test has set up for it.
+     */
+    private static class FakeEntsoeService extends EntsoeService {
+        private final Map<AreaCode, CompletableFuture<MarketDocument>> prices = new HashMap<>();
+        private final Map<AreaCode, Map<String, String>> params = new HashMap<>();
+
+        private FakeEntsoeService() {
+            super(null, null, null, null, null, null, null);
+        }
+
+        private CompletableFuture<MarketDocument> expect(AreaCode area) {
+            return prices.computeIfAbsent(area, key -> new CompletableFuture<>());
+        }
+
+        @Override
+        public CompletableFuture<MarketDocument> getPricesFromEntsoeApiAsync(String securityToken, String areaCode, Map<String, String> params, QueryType queryType) {
+            AreaCode area = AreaCode.getAreaCodeByValue(areaCode).orElseThrow();
+            this.params.put(area, params);
+            return prices.get(area);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package dk.systemedz.entsoe.marketdataservice.api.controllers;
+
+import dk.systemedz.entsoe.marketdataservice.api.dto.AreaCodeDto;
+import dk.systemedz.entsoe.marketdataservice.api.dto.ExportFormatDto;
+import dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PriceExportControllerTest {
+
+    // Neither the service nor the writer may be reached by a rejected request
+    private final PriceExportController controller = new PriceExportController(null, null);
+
+    public PriceExportControllerTest() {
+        ReflectionTestUtils.setField(controller, "maxDays", 3660L);
+    }
+
+    @Test
+    public void rejectsEveryAreaBeforeTheExportStarts() {
+        RestCallException e = assertThrows(RestCallException.class, () -> controller.exportPrices("20221001", "20221014",
+                List.of(AreaCodeDto.DK1, AreaCodeDto.FR, AreaCodeDto.DK1), ExportFormatDto.CSV, " ", null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getHttpStatus());
+        assertEquals(1, e.getErrorMessageDetails().size());
+        assertEquals("entsoe-security-token", e.getErrorMessageDetails().get(0).getField());
+    }
+
+    @Test
+    public void rejectsAllAreasWhenNoneAreRequested() {
+        RestCallException e = assertThrows(RestCallException.class, () -> controller.exportPrices("20221001", "20221014",
+                null, null, null, null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getHttpStatus());
+        assertEquals(1, e.getErrorMessageDetails().size());
+    }
+}
@@ -0,0 +1,151 @@
+package dk.systemedz.entsoe.marketdataservice.api.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.systemedz.entsoe.marketdataservice.api.dto.AreaCodeDto;
+import dk.systemedz.entsoe.marketdataservice.api.mappers.DtoMapper;
+import dk.systemedz.entsoe.marketdataservice.domain.events.DayAheadPricesPublishedEvent;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallException;
+import dk.systemedz.entsoe.marketdataservice.service.EntsoeService;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.nonNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceSubscriptionControllerTest {
+
+    private static final LocalDate DELIVERY_DAY = LocalDate.now(DateTimeUtils.MARKET_ZONE).plusDays(1);
+
+    private final ExecutorService sendExecutor = Executors.newCachedThreadPool();
+    private final ScheduledExecutorService heartbeatScheduler = Executors.newSingleThreadScheduledExecutor();
+    private final FakeEntsoeService entsoeService = new FakeEntsoeService();
+    private final Deque<RecordingEmitter> emitters = new ArrayDeque<>();
+    private final PriceSubscriptionController controller = new PriceSubscriptionController(
+            Mappers.getMapper(DtoMapper.class), new ObjectMapper(), entsoeService, sendExecutor, heartbeatScheduler) {
+        @Override
+        SseEmitter createEmitter() {
+            return emitters.poll();
+        }
+    };
+
+    @AfterEach
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+        heartbeatScheduler.shutdownNow();
+    }
+
+    @Test
+    public void dropsSubscribersThatHaveNotReadThePreviousPrices() throws Exception {
+        ReflectionTestUtils.setField(controller, "maxSubscribers", 10);
+        CountDownLatch readPrices = new CountDownLatch(1);
+        RecordingEmitter slow = subscribe(new RecordingEmitter(readPrices));
+        RecordingEmitter fast = subscribe(new RecordingEmitter(null));
+
+        controller.onDayAheadPricesPublished(createEvent(DELIVERY_DAY));
+        assertNotNull(fast.events.poll(10, TimeUnit.SECONDS));
+        assertTrue(slow.sending.await(10, TimeUnit.SECONDS));
+
+        // The slow subscriber is still writing the first prices, so it is dropped without delaying the others
+        controller.onDayAheadPricesPublished(createEvent(DELIVERY_DAY));
+        assertNotNull(fast.events.poll(10, TimeUnit.SECONDS));
+        assertEquals(1, slow.completed.getCount());
+
+        readPrices.countDown();
+        assertTrue(slow.completed.await(10, TimeUnit.SECONDS));
+        assertEquals(1, slow.events.size());
+        assertEquals(1, fast.completed.getCount());
+    }
+
+    @Test
+    public void rejectsSubscriptionsWithoutPrefetch() {
+        entsoeService.prefetchEnabled = false;
+        emitters.add(new RecordingEmitter(null));
+
+        RestCallException e = assertThrows(RestCallException.class,
+                () -> controller.subscribe(AreaCodeDto.DK1, "token", null, null));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getHttpStatus());
+    }
+
+    private RecordingEmitter subscribe(RecordingEmitter emitter) throws RestCallException {
+        emitters.add(emitter);
+        controller.subscribe(AreaCodeDto.DK1, "token", null, null);
+        return emitter;
+    }
+
+    private static DayAheadPricesPublishedEvent createEvent(LocalDate deliveryDay) {
+        PriceSeries intervalDay = PriceSeries.builder()
+                .startEpochSecond(DateTimeUtils.getDeliveryDayStart(deliveryDay).toEpochSecond(ZoneOffset.UTC))
+                .resolutionMinutes(60)
+                .prices(new double[24])
+                .build();
+        return new DayAheadPricesPublishedEvent(AreaCode.DK1, deliveryDay, intervalDay);
+    }
+
+    /**
+     * Records the written events, and blocks every write until readEvents is counted down, like a client that
+     * does not read.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch readEvents;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final BlockingQueue<SseEventBuilder> events = new LinkedBlockingQueue<>();
+
+        private RecordingEmitter(CountDownLatch readEvents) {
+            this.readEvents = readEvents;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                if(nonNull(readEvents))
+                    readEvents.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            events.add(builder);
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+
+    private static class FakeEntsoeService extends EntsoeService {
+        private boolean prefetchEnabled = true;
+
+        private FakeEntsoeService() {
+            super(null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public boolean isPrefetchEnabled() {
+            return prefetchEnabled;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package dk.systemedz.entsoe.marketdataservice.api.writers;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.TimeInterval;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static dk.systemedz.entsoe.marketdataservice.fixtures.PriceSeriesFixtures.createDay;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ArrowPricesHttpMessageConverterTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 10, 14);
+
+    private final ArrowPricesHttpMessageConverter converter = new ArrowPricesHttpMessageConverter();
+    private final RootAllocator allocator = new RootAllocator();
+
+    @AfterEach
+    public void close() {
+        allocator.close();
+        converter.close();
+    }
+
+    @Test
+    public void writesSharedUnitsAsMetadata() throws IOException {
+        ResponseBody body = write(createDocument(createDay(FIRST_DAY, "EUR", "MWH", 1), createDay(FIRST_DAY.plusDays(1), "EUR", "MWH", 2)));
+
+        assertFalse(body.closed);
+        try (ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(body.toByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            Map<String, String> metadata = root.getSchema().getCustomMetadata();
+            assertEquals("EUR", metadata.get("currency"));
+            assertEquals("MWH", metadata.get("measureUnit"));
+            assertEquals(AreaCode.DK1.getAreaCode(), metadata.get("areaCode"));
+            assertEquals(List.of("time", "price"), root.getSchema().getFields().stream().map(field -> field.getName()).toList());
+
+            assertTrue(reader.loadNextBatch());
+            assertEquals(48, root.getRowCount());
+            assertEquals(1.0, ((Float8Vector) root.getVector("price")).get(0));
+            assertEquals(2.0, ((Float8Vector) root.getVector("price")).get(47));
+        }
+    }
+
+    @Test
+    public void writesChangingUnitsAsColumns() throws IOException {
+        ResponseBody body = write(createDocument(createDay(FIRST_DAY, "EUR", "MWH", 1), createDay(FIRST_DAY.plusDays(1), "DKK", "MWH", 2)));
+
+        try (ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(body.toByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertNull(root.getSchema().getCustomMetadata().get("currency"));
+            assertEquals("MWH", root.getSchema().getCustomMetadata().get("measureUnit"));
+
+            assertTrue(reader.loadNextBatch());
+            VarCharVector currencies = (VarCharVector) root.getVector("currency");
+            assertEquals("EUR", new String(currencies.get(0)));
+            assertEquals("DKK", new String(currencies.get(47)));
+            assertNull(root.getVector("measureUnit"));
+        }
+    }
+
+    private ResponseBody write(MarketDocument marketDocument) throws IOException {
+        ResponseBody body = new ResponseBody();
+        converter.write(new StreamingPricesResponse(marketDocument), ArrowPricesHttpMessageConverter.ARROW_STREAM, new HttpOutputMessage() {
+            private final HttpHeaders headers = new HttpHeaders();
+
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        });
+        return body;
+    }
+
+    private static MarketDocument createDocument(PriceSeries... days) {
+        return MarketDocument.builder()
+                .createdDateTime(LocalDateTime.now())
+                .area(AreaCode.DK1)
+                .timeInterval(TimeInterval.builder()
+                        .intervalStart(days[0].getCurrentDateInterval().getIntervalStart())
+                        .intervalEnd(days[days.length - 1].getCurrentDateInterval().getIntervalEnd())
+                        .build())
+                .intervalDays(new ArrayList<>(List.of(days)))
+                .build();
+    }
+
+    /**
+     * Stands in for the servlet output stream, which must stay open for the container.
+     */
+    private static class ResponseBody extends ByteArrayOutputStream {
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
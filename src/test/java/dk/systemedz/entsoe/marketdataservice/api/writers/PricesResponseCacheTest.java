@@ -0,0 +1,119 @@
+package dk.systemedz.entsoe.marketdataservice.api.writers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.TimeInterval;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.service.PriceSegmentCache;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static dk.systemedz.entsoe.marketdataservice.fixtures.PriceSeriesFixtures.createDay;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PricesResponseCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.now(DateTimeUtils.MARKET_ZONE);
+    private static final Duration RECENT_TTL = Duration.ofHours(1);
+
+    private final PriceSegmentCache segmentCache = new PriceSegmentCache(createCacheManager());
+    private final PricesResponseCache responseCache =
+            new PricesResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), segmentCache, 16, RECENT_TTL);
+
+    public PricesResponseCacheTest() {
+        ReflectionTestUtils.setField(responseCache, "maxDays", 2);
+    }
+
+    @Test
+    public void expiresWithTheFirstCachedDay() {
+        PriceSeries today = createDay(TODAY);
+        PriceSeries tomorrow = createDay(TODAY.plusDays(1));
+        segmentCache.put(AreaCode.DK1.getAreaCode(), today);
+        segmentCache.put(AreaCode.DK1.getAreaCode(), tomorrow);
+
+        PricesResponseCache.CachedResponse response = responseCache.get("W/\"1\"", createDocument(today, tomorrow), () -> "body");
+
+        // Today expires after 10 minutes in the segment cache below, tomorrow after 20
+        assertTrue(response.ttl().compareTo(Duration.ofMinutes(10)) <= 0);
+        assertTrue(response.ttl().compareTo(Duration.ofMinutes(9)) > 0);
+    }
+
+    @Test
+    public void usesRecentTtlForDaysThatAreNotCached() {
+        PricesResponseCache.CachedResponse response = responseCache.get("W/\"1\"", createDocument(createDay(TODAY)), () -> "body");
+
+        assertEquals(RECENT_TTL, response.ttl());
+    }
+
+    @Test
+    public void serializesEveryBodyOnce() {
+        AtomicInteger serialized = new AtomicInteger();
+        MarketDocument document = createDocument(createDay(TODAY));
+
+        PricesResponseCache.CachedResponse first = responseCache.get("W/\"1\"", document, () -> "body-" + serialized.incrementAndGet());
+        PricesResponseCache.CachedResponse second = responseCache.get("W/\"1\"", document, () -> "body-" + serialized.incrementAndGet());
+        PricesResponseCache.CachedResponse other = responseCache.get("W/\"2\"", document, () -> "body-" + serialized.incrementAndGet());
+
+        assertSame(first, second);
+        assertEquals("\"body-1\"", new String(first.json()));
+        assertEquals("\"body-2\"", new String(other.json()));
+    }
+
+    @Test
+    public void cachesShortWindowsEndingTodayOrLater() {
+        assertTrue(responseCache.isCacheable(createDocument(createDay(TODAY), createDay(TODAY.plusDays(1)))));
+        assertFalse(responseCache.isCacheable(createDocument(createDay(TODAY.minusDays(1)))));
+        assertFalse(responseCache.isCacheable(createDocument(createDay(TODAY), createDay(TODAY.plusDays(1)), createDay(TODAY.plusDays(2)))));
+    }
+
+    private static CaffeineCacheManager createCacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PriceSegmentCache.CACHE_NAME, Caffeine.newBuilder()
+                .expireAfter(new Expiry<Object, Object>() {
+                    @Override
+                    public long expireAfterCreate(Object key, Object value, long currentTime) {
+                        PriceSegmentCache.SegmentKey segmentKey = (PriceSegmentCache.SegmentKey) key;
+                        return Duration.ofMinutes(segmentKey.deliveryDay().equals(TODAY) ? 10 : 20).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build());
+        return cacheManager;
+    }
+
+    private static MarketDocument createDocument(PriceSeries... days) {
+        return MarketDocument.builder()
+                .createdDateTime(LocalDateTime.now())
+                .area(AreaCode.DK1)
+                .timeInterval(TimeInterval.builder()
+                        .intervalStart(days[0].getCurrentDateInterval().getIntervalStart())
+                        .intervalEnd(days[days.length - 1].getCurrentDateInterval().getIntervalEnd())
+                        .build())
+                .intervalDays(List.of(days))
+                .build();
+    }
+}
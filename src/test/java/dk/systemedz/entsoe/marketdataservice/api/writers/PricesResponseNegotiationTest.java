@@ -0,0 +1,141 @@
+package dk.systemedz.entsoe.marketdataservice.api.writers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import dk.systemedz.entsoe.marketdataservice.api.dto.PricesResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.mappers.DtoMapper;
+import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.TimeInterval;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.service.PriceSegmentCache;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * The writer picks the response type for the ETag, and the message converters have to make the same choice.
+ */
+public class PricesResponseNegotiationTest {
+
+    private static final LocalDate DELIVERY_DAY = LocalDate.of(2022, 10, 14);
+
+    private final ArrowPricesHttpMessageConverter arrowConverter = new ArrowPricesHttpMessageConverter();
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PricesController())
+            .setMessageConverters(new ByteArrayHttpMessageConverter(), arrowConverter,
+                    new MappingJackson2HttpMessageConverter(), new MappingJackson2CborHttpMessageConverter())
+            .build();
+
+    @AfterEach
+    public void close() {
+        arrowConverter.close();
+    }
+
+    @Test
+    public void writesCborWhenAccepted() throws Exception {
+        MockHttpServletResponse response = getPrices(MediaType.APPLICATION_CBOR_VALUE);
+
+        assertEquals(200, response.getStatus());
+        assertTrue(MediaType.APPLICATION_CBOR.isCompatibleWith(MediaType.parseMediaType(response.getContentType())));
+        assertTrue(response.getHeader(HttpHeaders.ETAG).endsWith("-cbor\""));
+
+        JsonNode body = new ObjectMapper(new CBORFactory()).readTree(response.getContentAsByteArray());
+        assertEquals(AreaCode.DK1.getAreaCode(), body.get("areaCode").asText());
+        assertEquals("MWH", body.get("intervalDays").get(0).get("measureUnit").asText());
+        assertEquals(24, body.get("intervalDays").get(0).get("hourPrices").size());
+    }
+
+    @Test
+    public void writesArrowWhenPreferred() throws Exception {
+        MockHttpServletResponse response = getPrices("application/json;q=0.5, " + ArrowPricesHttpMessageConverter.ARROW_STREAM);
+
+        assertEquals(200, response.getStatus());
+        assertTrue(ArrowPricesHttpMessageConverter.ARROW_STREAM.isCompatibleWith(MediaType.parseMediaType(response.getContentType())));
+        try (RootAllocator allocator = new RootAllocator();
+             ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(response.getContentAsByteArray()), allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertEquals("EUR", root.getSchema().getCustomMetadata().get("currency"));
+            assertTrue(reader.loadNextBatch());
+            assertEquals(24, root.getRowCount());
+        }
+    }
+
+    @Test
+    public void writesJsonByDefault() throws Exception {
+        MockHttpServletResponse response = getPrices(null);
+
+        assertEquals(200, response.getStatus());
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(response.getContentType())));
+        assertEquals(AreaCode.DK1.getAreaCode(), new ObjectMapper().readTree(response.getContentAsByteArray()).get("areaCode").asText());
+    }
+
+    private MockHttpServletResponse getPrices(String accept) throws Exception {
+        return mockMvc.perform(accept == null ? get("/prices") : get("/prices").header(HttpHeaders.ACCEPT, accept))
+                .andReturn()
+                .getResponse();
+    }
+
+    @RestController
+    static class PricesController {
+        private final PricesResponseCache responseCache = new PricesResponseCache(new ObjectMapper(), new SimpleMeterRegistry(),
+                new PriceSegmentCache(new CaffeineCacheManager(PriceSegmentCache.CACHE_NAME)), 16, Duration.ofHours(1));
+
+        @GetMapping("/prices")
+        public ResponseEntity<PricesResponseDto> getPrices(HttpServletRequest request) {
+            PricesResponseWriter writer = new PricesResponseWriter(Mappers.getMapper(DtoMapper.class), responseCache, request);
+            ReflectionTestUtils.setField(writer, "streaming", true);
+            ReflectionTestUtils.setField(writer, "settledMaxAge", Duration.ofDays(30));
+            return writer.write(createDocument());
+        }
+    }
+
+    private static MarketDocument createDocument() {
+        PriceSeries day = PriceSeries.builder()
+                .currency("EUR")
+                .measureUnit("MWH")
+                .startEpochSecond(DateTimeUtils.getDeliveryDayStart(DELIVERY_DAY).toEpochSecond(ZoneOffset.UTC))
+                .resolutionMinutes(60)
+                .prices(new double[24])
+                .build();
+        return MarketDocument.builder()
+                .createdDateTime(LocalDateTime.now())
+                .area(AreaCode.DK1)
+                .timeInterval(TimeInterval.builder()
+                        .intervalStart(day.getCurrentDateInterval().getIntervalStart())
+                        .intervalEnd(day.getCurrentDateInterval().getIntervalEnd())
+                        .build())
+                .intervalDays(List.of(day))
+                .build();
+    }
+}
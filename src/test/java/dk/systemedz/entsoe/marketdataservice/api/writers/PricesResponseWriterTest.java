@@ -0,0 +1,137 @@
+package dk.systemedz.entsoe.marketdataservice.api.writers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dk.systemedz.entsoe.marketdataservice.api.dto.PricesResponseDto;
+import dk.systemedz.entsoe.marketdataservice.api.mappers.DtoMapper;
+import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.TimeInterval;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.service.PriceSegmentCache;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PricesResponseWriterTest {
+
+    private static final LocalDate SETTLED_DAY = LocalDate.of(2022, 10, 14);
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final PricesResponseCache responseCache = new PricesResponseCache(new ObjectMapper(), new SimpleMeterRegistry(),
+            new PriceSegmentCache(new CaffeineCacheManager(PriceSegmentCache.CACHE_NAME)), 16, Duration.ofHours(1));
+    private final PricesResponseWriter writer = new PricesResponseWriter(Mappers.getMapper(DtoMapper.class), responseCache, request);
+
+    public PricesResponseWriterTest() {
+        ReflectionTestUtils.setField(responseCache, "maxDays", 2);
+        ReflectionTestUtils.setField(writer, "streaming", true);
+        ReflectionTestUtils.setField(writer, "settledMaxAge", Duration.ofDays(30));
+    }
+
+    @Test
+    public void changesETagWithEveryWrittenField() {
+        String eTag = writer.write(createDocument(SETTLED_DAY, "EUR", "MWH", 1)).getHeaders().getETag();
+
+        assertEquals(eTag, writer.write(createDocument(SETTLED_DAY, "EUR", "MWH", 1)).getHeaders().getETag());
+        assertNotEquals(eTag, writer.write(createDocument(SETTLED_DAY, "EUR", "KWH", 1)).getHeaders().getETag());
+        assertNotEquals(eTag, writer.write(createDocument(SETTLED_DAY, "DKK", "MWH", 1)).getHeaders().getETag());
+        assertNotEquals(eTag, writer.write(createDocument(SETTLED_DAY, "EUR", "MWH", 2)).getHeaders().getETag());
+        assertNotEquals(eTag, writer.write(createDocument(SETTLED_DAY.plusDays(1), "EUR", "MWH", 1)).getHeaders().getETag());
+
+        request.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE);
+        assertNotEquals(eTag, writer.write(createDocument(SETTLED_DAY, "EUR", "MWH", 1)).getHeaders().getETag());
+    }
+
+    @Test
+    public void answersMatchingIfNoneMatchWithNotModified() {
+        String eTag = writer.write(createDocument(SETTLED_DAY, "EUR", "MWH", 1)).getHeaders().getETag();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", " + eTag.substring(2));
+
+        ResponseEntity<PricesResponseDto> response = writer.write(createDocument(SETTLED_DAY, "EUR", "MWH", 1));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(eTag, response.getHeaders().getETag());
+        assertEquals("max-age=2592000, private", response.getHeaders().getCacheControl());
+        assertNull(response.getBody());
+        assertEquals(HttpStatus.OK, writer.write(createDocument(SETTLED_DAY, "EUR", "MWH", 2)).getStatusCode());
+    }
+
+    @Test
+    public void revalidatesWindowsThatCanStillBeCorrected() {
+        LocalDate yesterday = LocalDate.now(DateTimeUtils.MARKET_ZONE).minusDays(1);
+
+        assertEquals("max-age=2592000, private",
+                writer.write(createDocument(yesterday.minusDays(1), "EUR", "MWH", 1)).getHeaders().getCacheControl());
+        assertEquals("no-cache, private",
+                writer.write(createDocument(yesterday, "EUR", "MWH", 1)).getHeaders().getCacheControl());
+    }
+
+    @Test
+    public void sendsCachedGzipBodyWhenAccepted() {
+        LocalDate today = LocalDate.now(DateTimeUtils.MARKET_ZONE);
+        ResponseEntity<PricesResponseDto> json = writer.write(createDocument(today, "EUR", "MWH", 1));
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.5");
+
+        ResponseEntity<PricesResponseDto> gzip = writer.write(createDocument(today, "EUR", "MWH", 1));
+
+        assertNull(json.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertInstanceOf(byte[].class, json.getBody());
+        assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING), gzip.getHeaders().getVary());
+        assertArrayEquals((byte[]) (Object) json.getBody(), gunzip((byte[]) (Object) gzip.getBody()));
+    }
+
+    private static byte[] gunzip(byte[] body) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MarketDocument createDocument(LocalDate deliveryDay, String currency, String measureUnit, double price) {
+        double[] prices = new double[24];
+        Arrays.fill(prices, price);
+        PriceSeries day = PriceSeries.builder()
+                .currency(currency)
+                .measureUnit(measureUnit)
+                .startEpochSecond(DateTimeUtils.getDeliveryDayStart(deliveryDay).toEpochSecond(ZoneOffset.UTC))
+                .resolutionMinutes(60)
+                .prices(prices)
+                .build();
+        return MarketDocument.builder()
+                .createdDateTime(LocalDateTime.now())
+                .area(AreaCode.DK1)
+                .timeInterval(TimeInterval.builder()
+                        .intervalStart(day.getCurrentDateInterval().getIntervalStart())
+                        .intervalEnd(day.getCurrentDateInterval().getIntervalEnd())
+                        .build())
+                .intervalDays(List.of(day))
+                .build();
+    }
+}
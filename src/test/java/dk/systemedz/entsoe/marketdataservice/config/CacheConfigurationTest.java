@@ -0,0 +1,56 @@
+package dk.systemedz.entsoe.marketdataservice.config;
+
+import dk.systemedz.entsoe.marketdataservice.service.PriceSegmentCache;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CacheConfigurationTest {
+
+    private static final String AREA_CODE = "10YDK-1--------W";
+    private static final LocalDate TODAY = LocalDate.of(2022, 10, 14);
+    private static final Duration RECENT_TTL = Duration.ofHours(1);
+    private static final Duration SETTLED_TTL = Duration.ofDays(3650);
+
+    // Right after the day-ahead publication
+    private final CacheConfiguration.DeliveryDayExpiry expiry = new CacheConfiguration.DeliveryDayExpiry(RECENT_TTL, SETTLED_TTL,
+            Clock.fixed(TODAY.atTime(13, 0).atZone(DateTimeUtils.MARKET_ZONE).toInstant(), DateTimeUtils.MARKET_ZONE));
+
+    @Test
+    public void keepsSettledDaysForTheSettledTtl() {
+        assertEquals(SETTLED_TTL, expireAfterCreate(TODAY.minusDays(2)));
+        assertEquals(SETTLED_TTL, expireAfterCreate(TODAY.minusYears(3)));
+    }
+
+    @Test
+    public void expiresRecentDaysAfterTheRecentTtl() {
+        assertEquals(RECENT_TTL, expireAfterCreate(TODAY.minusDays(1)));
+        assertEquals(RECENT_TTL, expireAfterCreate(TODAY));
+    }
+
+    @Test
+    public void keepsDayAheadUntilItsDeliveryDayStarts() {
+        assertEquals(Duration.ofHours(11), expireAfterCreate(TODAY.plusDays(1)));
+        assertEquals(Duration.ofHours(35), expireAfterCreate(TODAY.plusDays(2)));
+        assertEquals(RECENT_TTL, Duration.ofNanos(expiry.expireAfterUpdate(
+                new PriceSegmentCache.SegmentKey(AREA_CODE, TODAY), null, 0, SETTLED_TTL.toNanos())));
+    }
+
+    @Test
+    public void keepsDayAheadForAtLeastTheRecentTtl() {
+        CacheConfiguration.DeliveryDayExpiry lateExpiry = new CacheConfiguration.DeliveryDayExpiry(RECENT_TTL, SETTLED_TTL,
+                Clock.fixed(TODAY.atTime(23, 30).atZone(DateTimeUtils.MARKET_ZONE).toInstant(), DateTimeUtils.MARKET_ZONE));
+
+        assertEquals(RECENT_TTL, Duration.ofNanos(lateExpiry.expireAfterCreate(
+                new PriceSegmentCache.SegmentKey(AREA_CODE, TODAY.plusDays(1)), null, 0)));
+    }
+
+    private Duration expireAfterCreate(LocalDate deliveryDay) {
+        return Duration.ofNanos(expiry.expireAfterCreate(new PriceSegmentCache.SegmentKey(AREA_CODE, deliveryDay), null, 0));
+    }
+}
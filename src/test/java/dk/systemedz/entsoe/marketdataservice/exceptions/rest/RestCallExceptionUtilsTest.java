@@ -0,0 +1,35 @@
+package dk.systemedz.entsoe.marketdataservice.exceptions.rest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static dk.systemedz.entsoe.marketdataservice.exceptions.rest.RestCallExceptionUtils.toRestCallException;
+
+public class RestCallExceptionUtilsTest {
+
+    @Test
+    public void answersNoDataWithNoContent() {
+        RestCallException noData = new RestCallException("No data provided by ENTSO-E. Try another interval.", HttpStatus.NO_CONTENT);
+
+        assertEquals(HttpStatus.NO_CONTENT, toRestCallException(new CompletionException(noData)).getHttpStatus());
+        assertEquals(HttpStatus.NO_CONTENT, toRestCallException(noData).getHttpStatus());
+    }
+
+    @Test
+    public void unwrapsOtherFailuresIntoBadRequest() {
+        HttpClientErrorException unauthorized = HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized",
+                HttpHeaders.EMPTY, new byte[0], null);
+
+        RestCallException e = toRestCallException(new CompletionException(unauthorized));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getHttpStatus());
+        assertSame(unauthorized, e.getCause());
+        assertSame(unauthorized, toRestCallException(unauthorized).getCause());
+    }
+}
@@ -0,0 +1,45 @@
+package dk.systemedz.entsoe.marketdataservice.fixtures;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Delivery days for the tests, with the same price at every position of the day. Unless given, the days are
+ * hourly and priced in EUR per MWH, like most ENTSO-E areas.
+ */
+public final class PriceSeriesFixtures {
+
+    private PriceSeriesFixtures() {}
+
+    public static PriceSeries createDay(LocalDate deliveryDay) {
+        return createDay(deliveryDay, 0);
+    }
+
+    public static PriceSeries createDay(LocalDate deliveryDay, double price) {
+        return createDay(deliveryDay, 60, price);
+    }
+
+    public static PriceSeries createDay(LocalDate deliveryDay, int resolutionMinutes, double price) {
+        return createDay(deliveryDay, "EUR", "MWH", resolutionMinutes, price);
+    }
+
+    public static PriceSeries createDay(LocalDate deliveryDay, String currency, String measureUnit, double price) {
+        return createDay(deliveryDay, currency, measureUnit, 60, price);
+    }
+
+    private static PriceSeries createDay(LocalDate deliveryDay, String currency, String measureUnit, int resolutionMinutes, double price) {
+        double[] prices = new double[24 * 60 / resolutionMinutes];
+        Arrays.fill(prices, price);
+        return PriceSeries.builder()
+                .currency(currency)
+                .measureUnit(measureUnit)
+                .startEpochSecond(DateTimeUtils.getDeliveryDayStart(deliveryDay).toEpochSecond(ZoneOffset.UTC))
+                .resolutionMinutes(resolutionMinutes)
+                .prices(prices)
+                .build();
+    }
+}
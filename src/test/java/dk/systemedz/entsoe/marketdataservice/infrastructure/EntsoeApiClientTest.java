@@ -0,0 +1,190 @@
+package dk.systemedz.entsoe.marketdataservice.infrastructure;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.infrastructure.parser.PublicationMarketDocumentParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EntsoeApiClientTest {
+
+    private static final String AREA_CODE = "10YDK-1--------W";
+    private static final String PERIOD_START = "202210152200";
+    private static final String PERIOD_END = "202210162200";
+    private static final String INVALID_TOKEN = "invalid";
+
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    // Every response waits for a permit, so the requests stay in flight until the test releases them
+    private final Semaphore responses = new Semaphore(0);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger maxActiveRequests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile String fixture = "/entsoe/fixtures/a44-day.xml";
+    private volatile boolean gzip;
+    private HttpServer server;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api", this::handle);
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void sharesConcurrentRequestsForTheSameTokenAndPeriod() throws Exception {
+        EntsoeApiClient client = createClient(4);
+
+        CompletableFuture<List<PriceSeries>> first = client.getByPeriodDefinition("token", AREA_CODE, PERIOD_START, PERIOD_END);
+        CompletableFuture<List<PriceSeries>> second = client.getByPeriodDefinition("token", AREA_CODE, PERIOD_START, PERIOD_END);
+        CompletableFuture<List<PriceSeries>> otherToken = client.getByPeriodDefinition("other", AREA_CODE, PERIOD_START, PERIOD_END);
+        responses.release(2);
+
+        assertSame(first, second);
+        assertNotSame(first, otherToken);
+        assertEquals(1, first.get(10, TimeUnit.SECONDS).size());
+        assertEquals(1, otherToken.get(10, TimeUnit.SECONDS).size());
+        assertEquals(2, requests.get());
+
+        // A completed request is not shared with later calls
+        CompletableFuture<List<PriceSeries>> later = client.getByPeriodDefinition("token", AREA_CODE, PERIOD_START, PERIOD_END);
+        responses.release();
+        assertNotSame(first, later);
+        assertEquals(1, later.get(10, TimeUnit.SECONDS).size());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void failsOnlyTheCallsOfAnInvalidToken() throws Exception {
+        EntsoeApiClient client = createClient(4);
+
+        CompletableFuture<List<PriceSeries>> invalid = client.getByPeriodDefinition(INVALID_TOKEN, AREA_CODE, PERIOD_START, PERIOD_END);
+        CompletableFuture<List<PriceSeries>> valid = client.getByPeriodDefinition("token", AREA_CODE, PERIOD_START, PERIOD_END);
+        responses.release(2);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> invalid.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(HttpClientErrorException.Unauthorized.class, e.getCause());
+        assertEquals(1, valid.get(10, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    public void sendsAtMostParallelismRequestsAtATime() throws Exception {
+        EntsoeApiClient client = createClient(2);
+
+        List<CompletableFuture<List<PriceSeries>>> chunks = new ArrayList<>();
+        for (int day = 16; day < 22; day++)
+            chunks.add(client.getByPeriodDefinition("token", AREA_CODE, PERIOD_START, "202210%d2200".formatted(day)));
+        waitFor(() -> requests.get() == 2);
+        Thread.sleep(200);
+        // The other requests are queued until one of the permits is released
+        assertEquals(2, requests.get());
+
+        responses.release(chunks.size());
+        for (CompletableFuture<List<PriceSeries>> chunk : chunks)
+            assertEquals(1, chunk.get(10, TimeUnit.SECONDS).size());
+        assertEquals(chunks.size(), requests.get());
+        assertEquals(2, maxActiveRequests.get());
+    }
+
+    @Test
+    public void returnsNoDaysWhenEntsoeHasNoMatchingData() throws Exception {
+        EntsoeApiClient client = createClient(4);
+        status = 400;
+        fixture = "/entsoe/fixtures/acknowledgement-no-data.xml";
+        responses.release(2);
+
+        assertTrue(client.getByPeriodDefinition("token", AREA_CODE, PERIOD_START, PERIOD_END).get(10, TimeUnit.SECONDS).isEmpty());
+
+        // Any other 400 is still an error
+        fixture = "/entsoe/fixtures/a44-day.xml";
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> client.getByPeriodDefinition("token", AREA_CODE, PERIOD_START, PERIOD_END).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(HttpClientErrorException.BadRequest.class, e.getCause());
+    }
+
+    @Test
+    public void parsesGzippedResponses() throws Exception {
+        EntsoeApiClient client = createClient(4);
+        gzip = true;
+        responses.release(2);
+
+        assertEquals(1, client.getByPeriodDefinition("token", AREA_CODE, PERIOD_START, PERIOD_END).get(10, TimeUnit.SECONDS).size());
+
+        status = 400;
+        fixture = "/entsoe/fixtures/acknowledgement-no-data.xml";
+        assertTrue(client.getByPeriodDefinition("token", AREA_CODE, PERIOD_START, PERIOD_END).get(10, TimeUnit.SECONDS).isEmpty());
+    }
+
+    private EntsoeApiClient createClient(int parallelism) {
+        EntsoeApiClient client = new EntsoeApiClient(HttpClient.newHttpClient(), new PublicationMarketDocumentParser(), parallelism);
+        ReflectionTestUtils.setField(client, "BASE_URL", "http://localhost:%d/api".formatted(server.getAddress().getPort()));
+        ReflectionTestUtils.setField(client, "PRICES_TYPE", "A44");
+        ReflectionTestUtils.setField(client, "timeout", Duration.ofSeconds(10));
+        return client;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxActiveRequests.accumulateAndGet(activeRequests.incrementAndGet(), Math::max);
+        try (exchange; InputStream in = getClass().getResourceAsStream(fixture)) {
+            responses.acquire();
+            byte[] body = in.readAllBytes();
+            activeRequests.decrementAndGet();
+            if(gzip && "gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+                ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+                try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+                    out.write(body);
+                }
+                body = gzipped.toByteArray();
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(exchange.getRequestURI().getQuery().contains("securityToken=" + INVALID_TOKEN) ? 401 : status, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,42 @@
+package dk.systemedz.entsoe.marketdataservice.infrastructure.parser;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PublicationMarketDocumentParserTest {
+
+    private final PublicationMarketDocumentParser parser = new PublicationMarketDocumentParser();
+
+    @Test
+    public void parsesDayAheadPrices() throws Exception {
+        List<PriceSeries> days;
+        try (InputStream in = getClass().getResourceAsStream("/entsoe/fixtures/a44-day.xml")) {
+            days = parser.parse(in);
+        }
+
+        assertEquals(1, days.size());
+        PriceSeries day = days.get(0);
+        assertEquals("EUR", day.getCurrency());
+        assertEquals("MWH", day.getMeasureUnit());
+        assertEquals(60, day.getResolutionMinutes());
+        assertEquals(LocalDateTime.of(2022, 10, 15, 22, 0), day.getCurrentDateInterval().getIntervalStart());
+        assertEquals(LocalDateTime.of(2022, 10, 16, 22, 0), day.getCurrentDateInterval().getIntervalEnd());
+        assertEquals(24, day.size());
+        assertEquals(152.10, day.getPrice(0));
+        assertEquals(LocalDateTime.of(2022, 10, 16, 21, 0), day.getTime(23));
+    }
+
+    @Test
+    public void returnsNoDaysForAcknowledgementDocument() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/entsoe/fixtures/acknowledgement-no-data.xml")) {
+            assertTrue(parser.parse(in).isEmpty());
+        }
+    }
+}
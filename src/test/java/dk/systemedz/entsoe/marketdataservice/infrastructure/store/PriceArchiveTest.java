@@ -0,0 +1,118 @@
+package dk.systemedz.entsoe.marketdataservice.infrastructure.store;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static dk.systemedz.entsoe.marketdataservice.fixtures.PriceSeriesFixtures.createDay;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceArchiveTest {
+
+    private static final String AREA_CODE = "10YDK-1--------W";
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 10, 1);
+
+    @TempDir
+    Path path;
+
+    private final List<PriceArchive> archives = new ArrayList<>();
+
+    @AfterEach
+    public void closeArchives() {
+        archives.forEach(PriceArchive::close);
+    }
+
+    @Test
+    public void readsArchivedDaysAfterReopening() {
+        createArchive().putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 60, 1), createDay(FIRST_DAY.plusDays(1), 60, 2)));
+
+        List<PriceSeries> days = createArchive().getDays(AREA_CODE, FIRST_DAY, FIRST_DAY.plusDays(1)).orElseThrow();
+
+        assertEquals(2, days.size());
+        assertPrices(1, FIRST_DAY, days.get(0));
+        assertPrices(2, FIRST_DAY.plusDays(1), days.get(1));
+        assertEquals("EUR", days.get(0).getCurrency());
+        assertEquals("MWH", days.get(0).getMeasureUnit());
+    }
+
+    @Test
+    public void readsNothingWhenAnHourIsMissing() {
+        PriceArchive archive = createArchive();
+        archive.putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 60, 1), createDay(FIRST_DAY.plusDays(2), 60, 3)));
+
+        assertTrue(archive.getDays(AREA_CODE, FIRST_DAY, FIRST_DAY.plusDays(2)).isEmpty());
+        assertTrue(archive.getDays(AREA_CODE, FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(1)).isEmpty());
+        assertTrue(archive.getDays(AREA_CODE, FIRST_DAY, FIRST_DAY).isPresent());
+    }
+
+    @Test
+    public void archivesOnlyHourlyDays() {
+        PriceArchive archive = createArchive();
+
+        archive.putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 15, 1), createDay(FIRST_DAY.plusDays(1), 60, 2)));
+
+        assertTrue(archive.getDays(AREA_CODE, FIRST_DAY, FIRST_DAY).isEmpty());
+        assertPrices(2, FIRST_DAY.plusDays(1), archive.getDays(AREA_CODE, FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(1)).orElseThrow().get(0));
+    }
+
+    @Test
+    public void archivesOnlyDaysInTheArchivedUnits() {
+        PriceArchive archive = createArchive();
+        archive.putAll(AREA_CODE, List.of(createDay(FIRST_DAY, "EUR", "MWH", 1)));
+
+        archive.putAll(AREA_CODE, List.of(createDay(FIRST_DAY.plusDays(1), "DKK", "MWH", 2),
+                createDay(FIRST_DAY.plusDays(2), "EUR", "KWH", 3), createDay(FIRST_DAY, "DKK", "MWH", 4)));
+
+        assertTrue(archive.getDays(AREA_CODE, FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(1)).isEmpty());
+        assertTrue(archive.getDays(AREA_CODE, FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(2)).isEmpty());
+        // The archived day is not replaced by a day in another currency
+        PriceSeries day = archive.getDays(AREA_CODE, FIRST_DAY, FIRST_DAY).orElseThrow().get(0);
+        assertPrices(1, FIRST_DAY, day);
+        assertEquals("EUR", day.getCurrency());
+    }
+
+    @Test
+    public void readsWithoutCreatingArchive() {
+        PriceArchive archive = createArchive();
+
+        assertTrue(archive.getDays(AREA_CODE, FIRST_DAY, FIRST_DAY).isEmpty());
+        assertFalse(Files.exists(path.resolve(AREA_CODE + ".arc")));
+
+        // A later write replaces the read-only mapping of an existing archive
+        createArchive().putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 60, 1)));
+        PriceArchive reader = createArchive();
+        assertTrue(reader.getDays(AREA_CODE, FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(1)).isEmpty());
+        reader.putAll(AREA_CODE, List.of(createDay(FIRST_DAY.plusDays(1), 60, 2)));
+        assertEquals(2, reader.getDays(AREA_CODE, FIRST_DAY, FIRST_DAY.plusDays(1)).orElseThrow().size());
+    }
+
+    private PriceArchive createArchive() {
+        PriceArchive archive = new PriceArchive();
+        ReflectionTestUtils.setField(archive, "enabled", true);
+        ReflectionTestUtils.setField(archive, "path", path);
+        archives.add(archive);
+        return archive;
+    }
+
+    private static void assertPrices(double price, LocalDate deliveryDay, PriceSeries day) {
+        assertEquals(DateTimeUtils.getDeliveryDayStart(deliveryDay).toEpochSecond(ZoneOffset.UTC), day.getStartEpochSecond());
+        assertEquals(60, day.getResolutionMinutes());
+        double[] prices = new double[24];
+        Arrays.fill(prices, price);
+        assertArrayEquals(prices, day.getPrices());
+    }
+}
@@ -0,0 +1,132 @@
+package dk.systemedz.entsoe.marketdataservice.infrastructure.store;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static dk.systemedz.entsoe.marketdataservice.fixtures.PriceSeriesFixtures.createDay;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceStoreTest {
+
+    private static final String AREA_CODE = "10YDK-1--------W";
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 10, 1);
+
+    @TempDir
+    Path path;
+
+    private final List<PriceStore> stores = new ArrayList<>();
+
+    @AfterEach
+    public void closeStores() {
+        stores.forEach(PriceStore::close);
+    }
+
+    @Test
+    public void readsStoredDaysAfterReopening() throws IOException {
+        openStore().putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 1), createDay(FIRST_DAY.plusDays(1), 2)));
+
+        PriceStore store = openStore();
+
+        assertPrices(1, store, FIRST_DAY);
+        assertPrices(2, store, FIRST_DAY.plusDays(1));
+        assertEquals("EUR", store.get(AREA_CODE, FIRST_DAY).orElseThrow().getCurrency());
+        assertEquals("MWH", store.get(AREA_CODE, FIRST_DAY).orElseThrow().getMeasureUnit());
+    }
+
+    @Test
+    public void appendsOnlyChangedSettledDays() throws IOException {
+        PriceStore store = openStore();
+        LocalDate today = LocalDate.now(DateTimeUtils.MARKET_ZONE);
+
+        store.putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 1), createDay(today.minusDays(1), 1), createDay(today, 1)));
+        long size = Files.size(getSegment(FIRST_DAY));
+        store.putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 1)));
+
+        // Recent days can still be corrected, so they are not stored, and an unchanged day is not appended again
+        assertTrue(store.get(AREA_CODE, today.minusDays(1)).isEmpty());
+        assertTrue(store.get(AREA_CODE, today).isEmpty());
+        assertEquals(size, Files.size(getSegment(FIRST_DAY)));
+
+        store.putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 3)));
+
+        assertEquals(2 * size, Files.size(getSegment(FIRST_DAY)));
+        assertPrices(3, store, FIRST_DAY);
+        assertPrices(3, openStore(), FIRST_DAY);
+    }
+
+    @Test
+    public void cutsOffTruncatedRecordOnReopening() throws IOException {
+        openStore().putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 1)));
+        long recordLength = Files.size(getSegment(FIRST_DAY));
+        openStore().putAll(AREA_CODE, List.of(createDay(FIRST_DAY.plusDays(1), 2)));
+        try (FileChannel channel = FileChannel.open(getSegment(FIRST_DAY), StandardOpenOption.WRITE)) {
+            channel.truncate(2 * recordLength - 3);
+        }
+
+        PriceStore store = openStore();
+
+        assertEquals(recordLength, Files.size(getSegment(FIRST_DAY)));
+        assertPrices(1, store, FIRST_DAY);
+        assertTrue(store.get(AREA_CODE, FIRST_DAY.plusDays(1)).isEmpty());
+
+        // Records appended after the cut are read again
+        store.putAll(AREA_CODE, List.of(createDay(FIRST_DAY.plusDays(1), 2)));
+        assertPrices(2, openStore(), FIRST_DAY.plusDays(1));
+    }
+
+    @Test
+    public void cutsOffCorruptedRecordOnReopening() throws IOException {
+        openStore().putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 1), createDay(FIRST_DAY.plusDays(1), 2)));
+        long size = Files.size(getSegment(FIRST_DAY));
+        try (FileChannel channel = FileChannel.open(getSegment(FIRST_DAY), StandardOpenOption.WRITE)) {
+            // Flips the last price of the second record, just before its CRC
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), size - Integer.BYTES - 1);
+        }
+
+        PriceStore store = openStore();
+
+        assertEquals(size / 2, Files.size(getSegment(FIRST_DAY)));
+        assertPrices(1, store, FIRST_DAY);
+        assertTrue(store.get(AREA_CODE, FIRST_DAY.plusDays(1)).isEmpty());
+    }
+
+    private PriceStore openStore() throws IOException {
+        PriceStore store = new PriceStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "path", path);
+        store.open();
+        stores.add(store);
+        return store;
+    }
+
+    private Path getSegment(LocalDate deliveryDay) {
+        return path.resolve(AREA_CODE).resolve(deliveryDay.getYear() + ".seg");
+    }
+
+    private static void assertPrices(double price, PriceStore store, LocalDate deliveryDay) {
+        PriceSeries day = store.get(AREA_CODE, deliveryDay).orElseThrow();
+        assertEquals(DateTimeUtils.getDeliveryDayStart(deliveryDay).toEpochSecond(ZoneOffset.UTC), day.getStartEpochSecond());
+        assertEquals(60, day.getResolutionMinutes());
+        double[] prices = new double[24];
+        Arrays.fill(prices, price);
+        assertArrayEquals(prices, day.getPrices());
+    }
+}
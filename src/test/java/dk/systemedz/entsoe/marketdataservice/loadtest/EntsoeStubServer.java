@@ -0,0 +1,185 @@
+package dk.systemedz.entsoe.marketdataservice.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the ENTSO-E transparency API, so the service can be load tested without calling
+ * transparency.entsoe.eu. Every request is answered with an A44 document of generated hourly prices for the
+ * requested in_Domain and period (periodStart/periodEnd, yyyyMMddHHmm UTC), with one TimeSeries per delivery day.
+ * Latency, server errors (500) and throttling (429 with Retry-After) can be injected.
+ * <p>
+ * Run standalone with: java ... EntsoeStubServer [port] [latency (ISO-8601)] [error rate] [429 rate]
+ */
+public class EntsoeStubServer implements AutoCloseable {
+
+    private static final DateTimeFormatter PERIOD_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+    private static final ZoneId MARKET_ZONE = ZoneId.of("Europe/Copenhagen");
+
+    public record Settings(Duration latency, double errorRate, double throttleRate) {}
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Settings settings;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedFailures = new LongAdder();
+
+    private EntsoeStubServer(int port, Settings settings) throws IOException {
+        this.settings = settings;
+        this.executor = Executors.newCachedThreadPool();
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        this.server.createContext("/api", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public static EntsoeStubServer start(int port, Settings settings) throws IOException {
+        return new EntsoeStubServer(port, settings);
+    }
+
+    public String getApiUrl() {
+        return "http://localhost:%d/api".formatted(server.getAddress().getPort());
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getInjectedFailures() {
+        return injectedFailures.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange) {
+            if(!settings.latency().isZero())
+                Thread.sleep(settings.latency().toMillis());
+
+            double failure = ThreadLocalRandom.current().nextDouble();
+            if(failure < settings.throttleRate()) {
+                injectedFailures.increment();
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+            if(failure < settings.throttleRate() + settings.errorRate()) {
+                injectedFailures.increment();
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            byte[] body = createDocument(query.getOrDefault("in_Domain", "10YDK-1--------W"),
+                    parsePeriod(query.get("periodStart")), parsePeriod(query.get("periodEnd")));
+            exchange.getResponseHeaders().add("Content-Type", "application/xml");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            exchange.sendResponseHeaders(400, -1);
+        }
+    }
+
+    /**
+     * One TimeSeries per delivery day (Europe/Copenhagen), so days with a DST change have 23 or 25 hours.
+     */
+    static byte[] createDocument(String areaCode, Instant periodStart, Instant periodEnd) {
+        StringBuilder xml = new StringBuilder(4096)
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<Publication_MarketDocument xmlns=\"urn:iec62325.351:tc57wg16:451-3:publicationdocument:7:0\">\n")
+                .append("\t<mRID>stub</mRID>\n\t<revisionNumber>1</revisionNumber>\n\t<type>A44</type>\n")
+                .append("\t<createdDateTime>").append(formatTime(Instant.now())).append("</createdDateTime>\n")
+                .append("\t<period.timeInterval>\n\t\t<start>").append(formatTime(periodStart)).append("</start>\n")
+                .append("\t\t<end>").append(formatTime(periodEnd)).append("</end>\n\t</period.timeInterval>\n");
+
+        int seed = areaCode.hashCode();
+        int series = 1;
+        ZonedDateTime dayStart = periodStart.atZone(MARKET_ZONE).toLocalDate().atStartOfDay(MARKET_ZONE);
+        while (dayStart.toInstant().isBefore(periodEnd)) {
+            ZonedDateTime dayEnd = dayStart.plusDays(1);
+            long hours = Duration.between(dayStart, dayEnd).toHours();
+            xml.append("\t<TimeSeries>\n\t\t<mRID>").append(series++).append("</mRID>\n")
+                    .append("\t\t<businessType>A62</businessType>\n")
+                    .append("\t\t<in_Domain.mRID codingScheme=\"A01\">").append(areaCode).append("</in_Domain.mRID>\n")
+                    .append("\t\t<out_Domain.mRID codingScheme=\"A01\">").append(areaCode).append("</out_Domain.mRID>\n")
+                    .append("\t\t<currency_Unit.name>EUR</currency_Unit.name>\n")
+                    .append("\t\t<price_Measure_Unit.name>MWH</price_Measure_Unit.name>\n")
+                    .append("\t\t<curveType>A01</curveType>\n\t\t<Period>\n\t\t\t<timeInterval>\n")
+                    .append("\t\t\t\t<start>").append(formatTime(dayStart.toInstant())).append("</start>\n")
+                    .append("\t\t\t\t<end>").append(formatTime(dayEnd.toInstant())).append("</end>\n")
+                    .append("\t\t\t</timeInterval>\n\t\t\t<resolution>PT60M</resolution>\n");
+            for (int hour = 0; hour < hours; hour++) {
+                long epochHour = dayStart.toEpochSecond() / 3600 + hour;
+                double price = 120 + 80 * Math.sin((hour - 6) / 24.0 * 2 * Math.PI) + Math.floorMod(seed + epochHour * 31, 40);
+                xml.append("\t\t\t<Point>\n\t\t\t\t<position>").append(hour + 1).append("</position>\n")
+                        .append("\t\t\t\t<price.amount>").append(Math.round(price * 100) / 100.0).append("</price.amount>\n")
+                        .append("\t\t\t</Point>\n");
+            }
+            xml.append("\t\t</Period>\n\t</TimeSeries>\n");
+            dayStart = dayEnd;
+        }
+        return xml.append("</Publication_MarketDocument>\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if(rawQuery == null)
+            return query;
+
+        for (String parameter : rawQuery.split("&")) {
+            int separator = parameter.indexOf('=');
+            if(separator > 0)
+                query.put(parameter.substring(0, separator), URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static Instant parsePeriod(String period) {
+        return LocalDateTime.parse(period, PERIOD_FORMAT).toInstant(ZoneOffset.UTC);
+    }
+
+    // ENTSO-E writes the period times without seconds, e.g. 2022-10-15T22:00Z
+    private static String formatTime(Instant instant) {
+        String time = instant.truncatedTo(ChronoUnit.MINUTES).toString();
+        return time.substring(0, time.length() - 4) + "Z";
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = new Settings(
+                args.length > 1 ? Duration.parse(args[1]) : Duration.ofMillis(50),
+                args.length > 2 ? Double.parseDouble(args[2]) : 0,
+                args.length > 3 ? Double.parseDouble(args[3]) : 0);
+        EntsoeStubServer stub = start(args.length > 0 ? Integer.parseInt(args[0]) : 8089, settings);
+        System.out.println("ENTSO-E stub listening on " + stub.getApiUrl() + " with " + settings);
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,167 @@
+package dk.systemedz.entsoe.marketdataservice.loadtest;
+
+import dk.systemedz.entsoe.marketdataservice.MarketDataServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load scenario for the price endpoints. Starts the {@link EntsoeStubServer} and the service against it, and calls
+ * every operation from a number of concurrent clients for a fixed duration (after a warm-up), printing the
+ * throughput, error count and p50/p99/max latency of each operation. Run with ./gradlew loadTest.
+ * <p>
+ * System properties:
+ * loadtest.concurrency (32), loadtest.duration (PT20S), loadtest.warm-up (PT5S),
+ * loadtest.stub.latency (PT0.05S), loadtest.stub.error-rate (0), loadtest.stub.throttle-rate (0)
+ * and loadtest.operations (comma-separated names, all by default).
+ * <p>
+ * The price store and archive are kept in a temporary directory, so every run starts with empty caches and the
+ * warm-up decides how much of the measured traffic reaches the stub.
+ */
+public final class PriceLoadScenario {
+
+    private static final String SECURITY_TOKEN = "loadtest";
+
+    private record Operation(String name, String path) {}
+
+    private record Result(Operation operation, long requests, long errors, long[] latencies, Duration duration) {
+        private double percentile(double percentile) {
+            if(latencies.length == 0)
+                return 0;
+            return latencies[(int) Math.min(latencies.length - 1, Math.ceil(percentile * latencies.length) - 1)] / 1_000_000d;
+        }
+
+        private String format() {
+            return "%-26s %9.1f %8d %8d %9.2f %9.2f %9.2f".formatted(operation.name(),
+                    requests / (duration.toMillis() / 1000d), requests, errors,
+                    percentile(0.5), percentile(0.99), percentile(1));
+        }
+    }
+
+    private static final List<Operation> OPERATIONS = List.of(
+            new Operation("by-interval/day", "/prices/DK1/by-interval/day/1"),
+            new Operation("by-interval/day/next", "/prices/DK1/by-interval/day/next"),
+            new Operation("by-interval/week", "/prices/DK1/by-interval/week/1"),
+            new Operation("by-interval/month", "/prices/DK1/by-interval/month/1"),
+            new Operation("by-interval/year", "/prices/DK1/by-interval/year"),
+            new Operation("by-range/from", "/prices/DK1/by-range/20221001"),
+            new Operation("by-range/from-to", "/prices/DK1/by-range/20220101/20220331"),
+            new Operation("by-week", "/prices/DK1/by-week/?year=2022"),
+            new Operation("by-week/week", "/prices/DK1/by-week/42?year=2022"),
+            new Operation("by-month", "/prices/DK1/by-month/?year=2022"),
+            new Operation("by-month/month", "/prices/DK1/by-month/10?year=2022"),
+            new Operation("by-year", "/prices/DK1/by-year/"),
+            new Operation("by-year/year", "/prices/DK1/by-year/2021"),
+            new Operation("batch", "/prices/batch?areaCodes=DK1,DK2,SE3,SE4,NO2,DE"),
+            new Operation("aggregate", "/prices/DK1/aggregate/DAY?from=20220101&to=20221231"),
+            new Operation("cheapest-hours", "/prices/DK1/cheapest-hours?hours=3"),
+            new Operation("rolling", "/prices/DK1/rolling/30"),
+            new Operation("export", "/prices/export?from=20220101&to=20221231&areaCodes=DK1,DK2&format=CSV"));
+
+    private PriceLoadScenario() {}
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT20S"));
+        Duration warmUp = Duration.parse(System.getProperty("loadtest.warm-up", "PT5S"));
+        EntsoeStubServer.Settings stubSettings = new EntsoeStubServer.Settings(
+                Duration.parse(System.getProperty("loadtest.stub.latency", "PT0.05S")),
+                Double.parseDouble(System.getProperty("loadtest.stub.error-rate", "0")),
+                Double.parseDouble(System.getProperty("loadtest.stub.throttle-rate", "0")));
+        List<String> selected = Arrays.asList(System.getProperty("loadtest.operations", "").split(","));
+        List<Operation> operations = OPERATIONS.stream()
+                .filter(operation -> selected.contains("") || selected.contains(operation.name()))
+                .toList();
+
+        Path dataDirectory = Files.createTempDirectory("entsoe-loadtest");
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try (EntsoeStubServer stub = EntsoeStubServer.start(0, stubSettings);
+             ConfigurableApplicationContext application = new SpringApplicationBuilder(MarketDataServiceApplication.class).run(
+                     "--server.port=0",
+                     "--management.server.port=0",
+                     "--entsoe.api-url=" + stub.getApiUrl(),
+                     "--entsoe.prefetch.security-token=",
+                     "--entsoe.store.path=" + dataDirectory.resolve("prices"),
+                     "--entsoe.archive.path=" + dataDirectory.resolve("archive"),
+                     "--logging.level.root=warn")) {
+            String baseUrl = "http://localhost:%s/api/v1".formatted(application.getEnvironment().getProperty("local.server.port"));
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+            System.out.printf("%nConcurrency %d, duration %s (warm-up %s), stub %s%n%n", concurrency, duration, warmUp, stubSettings);
+            System.out.printf("%-26s %9s %8s %8s %9s %9s %9s%n", "operation", "req/s", "requests", "errors", "p50 ms", "p99 ms", "max ms");
+            for (Operation operation : operations) {
+                run(clients, client, baseUrl, operation, concurrency, warmUp);
+                System.out.println(run(clients, client, baseUrl, operation, concurrency, duration).format());
+            }
+            System.out.printf("%nENTSO-E stub: %d requests, %d injected failures%n", stub.getRequests(), stub.getInjectedFailures());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static Result run(ExecutorService clients, HttpClient client, String baseUrl, Operation operation,
+                              int concurrency, Duration duration) throws Exception {
+        String separator = operation.path().contains("?") ? "&" : "?";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + operation.path() + separator + "securityToken=" + SECURITY_TOKEN))
+                .header("Accept-Encoding", "gzip")
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++)
+            workers.add(clients.submit(() -> callUntil(client, request, deadline)));
+
+        // Every worker returns its latencies (ns), with the error count in the last position
+        long errors = 0;
+        List<long[]> workerLatencies = new ArrayList<>(concurrency);
+        for (Future<long[]> worker : workers) {
+            long[] latencies = worker.get();
+            errors += latencies[latencies.length - 1];
+            workerLatencies.add(Arrays.copyOf(latencies, latencies.length - 1));
+        }
+
+        long[] latencies = workerLatencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(operation, latencies.length, errors, latencies, duration);
+    }
+
+    private static long[] callUntil(HttpClient client, HttpRequest request, long deadline) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long errors = 0;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if(response.statusCode() >= 400)
+                    errors++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                errors++;
+            }
+
+            if(count == latencies.length)
+                latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = System.nanoTime() - start;
+        }
+        long[] result = Arrays.copyOf(latencies, count + 1);
+        result[count] = errors;
+        return result;
+    }
+}
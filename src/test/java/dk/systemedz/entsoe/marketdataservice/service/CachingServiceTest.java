@@ -0,0 +1,210 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.events.DayAheadPricesPublishedEvent;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static dk.systemedz.entsoe.marketdataservice.fixtures.PriceSeriesFixtures.createDay;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CachingServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2022, 10, 14);
+    private static final int AREAS = AreaCode.values().length;
+
+    private final MarketClock clock = new MarketClock(TODAY.atTime(12, 45));
+    private final RecordingExecutor executor = new RecordingExecutor();
+    private final FakeEntsoeService entsoeService = new FakeEntsoeService();
+    private final List<Object> events = new ArrayList<>();
+    private final CachingService cachingService = new CachingService(entsoeService, events::add, executor, clock);
+
+    @Test
+    public void prefetchesDayAheadAtPublicationTime() throws Exception {
+        Scheduled scheduled = CachingService.class.getMethod("prefetchDayAhead").getAnnotation(Scheduled.class);
+        ZonedDateTime next = CronExpression.parse(scheduled.cron()).next(TODAY.atStartOfDay(ZoneId.of(scheduled.zone())));
+
+        assertEquals(TODAY.atTime(DateTimeUtils.DAY_AHEAD_PUBLICATION_TIME), next.toLocalDateTime());
+        assertEquals(DateTimeUtils.MARKET_ZONE, next.getZone());
+    }
+
+    @Test
+    public void retriesWithBackoffUntilTheDeadline() {
+        cachingService.prefetchDayAhead();
+
+        List<Duration> delays = new ArrayList<>();
+        while (!executor.scheduled.isEmpty())
+            delays.add(executor.runScheduled(clock));
+
+        // 1, 2, 4 and 8 minutes, then every 15 minutes until the first attempt after 23:00
+        assertEquals(List.of(Duration.ofMinutes(1), Duration.ofMinutes(2), Duration.ofMinutes(4), Duration.ofMinutes(8),
+                Duration.ofMinutes(15), Duration.ofMinutes(15)), delays.subList(0, 6));
+        assertEquals(LocalTime.of(23, 15), LocalTime.now(clock));
+        assertEquals(46 * AREAS, entsoeService.refreshedDays.size());
+        assertTrue(entsoeService.refreshedDays.stream().allMatch(TODAY.plusDays(1)::equals));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void publishesDayAheadOnceAvailable() {
+        cachingService.prefetchDayAhead();
+        executor.runScheduled(clock);
+        entsoeService.dayAhead = List.of(createDay(TODAY.plusDays(1)));
+        executor.runScheduled(clock);
+
+        assertTrue(executor.scheduled.isEmpty());
+        assertEquals(3 * AREAS, entsoeService.refreshedDays.size());
+        assertEquals(AREAS, events.size());
+        DayAheadPricesPublishedEvent event = (DayAheadPricesPublishedEvent) events.get(0);
+        assertEquals(TODAY.plusDays(1), event.getDeliveryDay());
+        assertEquals(entsoeService.dayAhead.get(0), event.getIntervalDay());
+    }
+
+    @Test
+    public void warmsUpCurrentYearBeforePublication() {
+        ReflectionTestUtils.setField(cachingService, "warmUp", true);
+        clock.set(TODAY.atTime(8, 0));
+
+        cachingService.warmUpCurrentYear();
+
+        assertEquals(AREAS, entsoeService.loadedRanges.size());
+        assertEquals(List.of(LocalDate.of(2022, 1, 1), TODAY), entsoeService.loadedRanges.get(0));
+        assertTrue(entsoeService.refreshedDays.isEmpty());
+    }
+
+    @Test
+    public void warmsUpDayAheadAfterPublication() {
+        ReflectionTestUtils.setField(cachingService, "warmUp", true);
+        clock.set(TODAY.atTime(13, 0));
+
+        cachingService.warmUpCurrentYear();
+
+        assertEquals(AREAS, entsoeService.loadedRanges.size());
+        assertEquals(AREAS, entsoeService.refreshedDays.size());
+    }
+
+    @Test
+    public void doesNothingWithoutPrefetchToken() {
+        ReflectionTestUtils.setField(cachingService, "warmUp", true);
+        entsoeService.prefetchEnabled = false;
+
+        cachingService.warmUpCurrentYear();
+        cachingService.prefetchDayAhead();
+
+        assertTrue(entsoeService.loadedRanges.isEmpty());
+        assertTrue(entsoeService.refreshedDays.isEmpty());
+        assertTrue(executor.scheduled.isEmpty());
+    }
+
+    private static class FakeEntsoeService extends EntsoeService {
+        private final List<List<LocalDate>> loadedRanges = new ArrayList<>();
+        private final List<LocalDate> refreshedDays = new ArrayList<>();
+        private boolean prefetchEnabled = true;
+        private List<PriceSeries> dayAhead = List.of();
+
+        private FakeEntsoeService() {
+            super(null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public boolean isPrefetchEnabled() {
+            return prefetchEnabled;
+        }
+
+        @Override
+        public void loadMissingDays(String securityToken, String areaCode, LocalDate firstDay, LocalDate lastDay) {
+            loadedRanges.add(List.of(firstDay, lastDay));
+        }
+
+        @Override
+        public List<PriceSeries> refreshDays(String securityToken, String areaCode, LocalDate firstDay, LocalDate lastDay) {
+            refreshedDays.add(firstDay);
+            return dayAhead;
+        }
+    }
+
+    /**
+     * Runs submitted tasks right away and keeps scheduled tasks until the test runs them.
+     */
+    private static class RecordingExecutor extends ScheduledThreadPoolExecutor {
+        private record ScheduledTask(Duration delay, Runnable task) {}
+
+        private List<ScheduledTask> scheduled = new ArrayList<>();
+
+        private RecordingExecutor() {
+            super(1);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            scheduled.add(new ScheduledTask(Duration.ofNanos(unit.toNanos(delay)), command));
+            return null;
+        }
+
+        /**
+         * Advances the clock by the delay of the scheduled tasks (the same for every area) and runs them.
+         */
+        private Duration runScheduled(MarketClock clock) {
+            List<ScheduledTask> tasks = scheduled;
+            scheduled = new ArrayList<>();
+            clock.advance(tasks.get(0).delay());
+            tasks.forEach(task -> task.task().run());
+            return tasks.get(0).delay();
+        }
+    }
+
+    private static class MarketClock extends Clock {
+        private Instant instant;
+
+        private MarketClock(LocalDateTime marketDateTime) {
+            set(marketDateTime);
+        }
+
+        private void set(LocalDateTime marketDateTime) {
+            instant = marketDateTime.atZone(DateTimeUtils.MARKET_ZONE).toInstant();
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return DateTimeUtils.MARKET_ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.MarketDocument;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.QueryType;
+import dk.systemedz.entsoe.marketdataservice.infrastructure.store.PriceArchive;
+import dk.systemedz.entsoe.marketdataservice.infrastructure.store.PriceStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EntsoeServiceTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 10, 2);
+    // Delivery days 2022-10-02 and 2022-10-03
+    private static final Map<String, String> SETTLED_RANGE = Map.of("from", "20221001", "to", "20221002");
+
+    @TempDir
+    Path path;
+
+    private final ExecutorService fetchExecutor = Executors.newSingleThreadExecutor();
+    private final FakeEntsoeApiClient entsoeApiClient = new FakeEntsoeApiClient();
+    private final PriceArchive priceArchive = new PriceArchive();
+
+    @BeforeEach
+    public void enableArchive() {
+        ReflectionTestUtils.setField(priceArchive, "enabled", true);
+        ReflectionTestUtils.setField(priceArchive, "path", path);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+        priceArchive.close();
+    }
+
+    @Test
+    public void readsArchivedHourlyDays() {
+        createService().getPricesFromEntsoeApi("token", AreaCode.DK1.getAreaCode(), SETTLED_RANGE, QueryType.DATETIME);
+
+        // Every service has its own price cache, so the days can only come from the archive
+        MarketDocument archived = createService().getPricesFromEntsoeApi("token", AreaCode.DK1.getAreaCode(), SETTLED_RANGE, QueryType.DATETIME);
+
+        assertEquals(List.of(FIRST_DAY), entsoeApiClient.requestedDays);
+        assertResolution(60, archived);
+    }
+
+    @Test
+    public void readsQuarterHoursAtTheirResolution() {
+        entsoeApiClient.resolutionMinutes = 15;
+        MarketDocument fetched = createService().getPricesFromEntsoeApi("token", AreaCode.DK1.getAreaCode(), SETTLED_RANGE, QueryType.DATETIME);
+
+        MarketDocument refetched = createService().getPricesFromEntsoeApi("token", AreaCode.DK1.getAreaCode(), SETTLED_RANGE, QueryType.DATETIME);
+
+        // The quarter hours are not archived, so they are fetched again instead of being read as hours
+        assertEquals(List.of(FIRST_DAY, FIRST_DAY), entsoeApiClient.requestedDays);
+        assertResolution(15, fetched);
+        assertResolution(15, refetched);
+    }
+
+    private EntsoeService createService() {
+        EntsoeService entsoeService = new EntsoeService(entsoeApiClient, new PriceSegmentCache(new CaffeineCacheManager(PriceSegmentCache.CACHE_NAME)),
+                new PriceStore(), priceArchive, new RollingStatisticsIndex(), new SimpleMeterRegistry(), fetchExecutor);
+        ReflectionTestUtils.setField(entsoeService, "chunkSize", Period.ofMonths(1));
+        return entsoeService;
+    }
+
+    private static void assertResolution(int resolutionMinutes, MarketDocument marketDocument) {
+        assertEquals(2, marketDocument.getIntervalDays().size());
+        for (PriceSeries day : marketDocument.getIntervalDays()) {
+            assertEquals(resolutionMinutes, day.getResolutionMinutes());
+            assertEquals(24 * 60 / resolutionMinutes, day.size());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.infrastructure.EntsoeApiClient;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static dk.systemedz.entsoe.marketdataservice.fixtures.PriceSeriesFixtures.createDay;
+
+/**
+ * Answers every request with all days of the period at the resolution, or with the failure when it is set.
+ */
+class FakeEntsoeApiClient extends EntsoeApiClient {
+    final List<LocalDate> requestedDays = new ArrayList<>();
+    int resolutionMinutes = 60;
+    RuntimeException failure;
+
+    FakeEntsoeApiClient() {
+        super(null, null, 1);
+    }
+
+    @Override
+    public CompletableFuture<List<PriceSeries>> getByPeriodDefinition(String securityToken, String areaCode, String start, String end) {
+        if(failure != null)
+            return CompletableFuture.failedFuture(failure);
+
+        LocalDate firstDay = DateTimeUtils.getDeliveryDay(DateTimeUtils.parseEntsoeQueryDateTime(start));
+        LocalDate lastDay = DateTimeUtils.getDeliveryDay(DateTimeUtils.parseEntsoeQueryDateTime(end).minusMinutes(1));
+        requestedDays.add(firstDay);
+        List<PriceSeries> days = new ArrayList<>();
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1))
+            days.add(createDay(day, resolutionMinutes, 0));
+        return CompletableFuture.completedFuture(days);
+    }
+}
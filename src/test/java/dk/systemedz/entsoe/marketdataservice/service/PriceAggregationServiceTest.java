@@ -0,0 +1,67 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceAggregate;
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AggregationGranularity;
+import dk.systemedz.entsoe.marketdataservice.utils.DateTimeUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PriceAggregationServiceTest {
+
+    private final PriceAggregationService service = new PriceAggregationService(null);
+
+    @Test
+    public void aggregatesEveryDay() {
+        // Monday and Tuesday, 2022-10-17 and 2022-10-18
+        List<PriceSeries> days = List.of(createDay(LocalDate.of(2022, 10, 17)), createDay(LocalDate.of(2022, 10, 18)));
+
+        List<PriceAggregate> aggregates = service.aggregate(days, AggregationGranularity.DAY, List.of(50, 90));
+
+        assertEquals(2, aggregates.size());
+        PriceAggregate monday = aggregates.get(0);
+        assertEquals(LocalDateTime.of(2022, 10, 16, 22, 0), monday.getPeriod().getIntervalStart());
+        assertEquals(LocalDateTime.of(2022, 10, 17, 22, 0), monday.getPeriod().getIntervalEnd());
+        assertEquals(24, monday.getCount());
+        assertEquals(11.5, monday.getMean());
+        assertEquals(0.0, monday.getMin());
+        assertEquals(23.0, monday.getMax());
+        // Local hours 08 - 19 are peak hours
+        assertEquals(13.5, monday.getPeakMean());
+        assertEquals(11.5, monday.getPercentiles().get(0).getPrice());
+        assertEquals(20.7, monday.getPercentiles().get(1).getPrice(), 1e-9);
+    }
+
+    @Test
+    public void aggregatesDaysOfTheSameMonth() {
+        List<PriceSeries> days = List.of(createDay(LocalDate.of(2022, 10, 30)), createDay(LocalDate.of(2022, 10, 31)),
+                createDay(LocalDate.of(2022, 11, 1)));
+
+        List<PriceAggregate> aggregates = service.aggregate(days, AggregationGranularity.MONTH, List.of(50));
+
+        assertEquals(2, aggregates.size());
+        assertEquals(48, aggregates.get(0).getCount());
+        assertEquals(24, aggregates.get(1).getCount());
+    }
+
+    private PriceSeries createDay(LocalDate deliveryDay) {
+        LocalDateTime start = DateTimeUtils.getDeliveryDayStart(deliveryDay);
+        double[] prices = new double[24];
+        for (int i = 0; i < prices.length; i++)
+            prices[i] = i;
+
+        return PriceSeries.builder()
+                .currency("EUR")
+                .measureUnit("MWH")
+                .startEpochSecond(start.toEpochSecond(ZoneOffset.UTC))
+                .resolutionMinutes(60)
+                .prices(prices)
+                .build();
+    }
+}
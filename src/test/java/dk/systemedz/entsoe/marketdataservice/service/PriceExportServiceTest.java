@@ -0,0 +1,73 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import dk.systemedz.entsoe.marketdataservice.domain.models.enums.AreaCode;
+import dk.systemedz.entsoe.marketdataservice.infrastructure.store.PriceArchive;
+import dk.systemedz.entsoe.marketdataservice.infrastructure.store.PriceStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static dk.systemedz.entsoe.marketdataservice.fixtures.PriceSeriesFixtures.createDay;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceExportServiceTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 10, 1);
+
+    private final ExecutorService fetchExecutor = Executors.newSingleThreadExecutor();
+    private final FakeEntsoeApiClient entsoeApiClient = new FakeEntsoeApiClient();
+    private final PriceSegmentCache segmentCache = new PriceSegmentCache(new CaffeineCacheManager(PriceSegmentCache.CACHE_NAME));
+    private final PriceExportService exportService = new PriceExportService(new EntsoeService(entsoeApiClient, segmentCache,
+            new PriceStore(), new PriceArchive(), new RollingStatisticsIndex(), new SimpleMeterRegistry(), fetchExecutor));
+
+    public PriceExportServiceTest() {
+        ReflectionTestUtils.setField(exportService, "chunkSize", Period.ofDays(10));
+    }
+
+    @AfterEach
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    @Test
+    public void exportsWithoutFillingThePriceCache() {
+        PriceSeries cachedDay = createDay(FIRST_DAY.plusDays(4));
+        segmentCache.put(AreaCode.DK1.getAreaCode(), cachedDay);
+        List<PriceSeries> exportedDays = new ArrayList<>();
+
+        exportService.export("token", List.of(AreaCode.DK1), FIRST_DAY, FIRST_DAY.plusDays(14), (area, days) -> exportedDays.addAll(days));
+
+        assertEquals(15, exportedDays.size());
+        assertEquals(cachedDay, exportedDays.get(4));
+        // The cached day splits the first chunk, the second chunk is fetched as a whole
+        assertEquals(List.of(FIRST_DAY, FIRST_DAY.plusDays(5), FIRST_DAY.plusDays(10)), entsoeApiClient.requestedDays);
+        assertEquals(1, segmentCache.getDays(AreaCode.DK1.getAreaCode(), FIRST_DAY, FIRST_DAY.plusDays(14)).size());
+    }
+
+    @Test
+    public void abortsOnUpstreamErrors() {
+        entsoeApiClient.failure = HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request",
+                HttpHeaders.EMPTY, "Invalid query".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        List<PriceSeries> exportedDays = new ArrayList<>();
+
+        assertThrows(HttpClientErrorException.BadRequest.class, () -> exportService.export("token", List.of(AreaCode.DK1),
+                FIRST_DAY, FIRST_DAY.plusDays(14), (area, days) -> exportedDays.addAll(days)));
+        assertTrue(exportedDays.isEmpty());
+    }
+}
@@ -0,0 +1,25 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PriceScheduleServiceTest {
+
+    private static final double[] HOUR_PRICES = { 50, 40, 10, 30, 20, Double.NaN, 5, 15, 60, 25 };
+
+    @Test
+    public void findsCheapestHoursInOrderOfTime() {
+        assertArrayEquals(new int[] { 2, 4, 6, 7 }, PriceScheduleService.findCheapestHours(HOUR_PRICES, 4));
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 6, 7, 8, 9 }, PriceScheduleService.findCheapestHours(HOUR_PRICES, 20));
+    }
+
+    @Test
+    public void findsCheapestBlockWithoutMissingHours() {
+        assertEquals(2, PriceScheduleService.findCheapestBlock(HOUR_PRICES, 3));
+        // 5 + 15 is the cheapest pair, 20 + 5 spans the missing hour
+        assertEquals(6, PriceScheduleService.findCheapestBlock(HOUR_PRICES, 2));
+        assertEquals(-1, PriceScheduleService.findCheapestBlock(HOUR_PRICES, 6));
+    }
+}
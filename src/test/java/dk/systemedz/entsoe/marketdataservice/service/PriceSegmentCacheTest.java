@@ -0,0 +1,50 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.PriceSeries;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static dk.systemedz.entsoe.marketdataservice.fixtures.PriceSeriesFixtures.createDay;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceSegmentCacheTest {
+
+    private static final String AREA_CODE = "10YDK-1--------W";
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 10, 1);
+
+    @Test
+    public void mergesMissingDaysIntoRanges() {
+        Set<LocalDate> presentDays = Set.of(FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(3), FIRST_DAY.plusDays(6));
+
+        assertEquals(List.of(Pair.of(FIRST_DAY, FIRST_DAY.plusDays(1)), Pair.of(FIRST_DAY.plusDays(4), FIRST_DAY.plusDays(5)),
+                        Pair.of(FIRST_DAY.plusDays(7), FIRST_DAY.plusDays(9))),
+                PriceSegmentCache.findMissingRanges(presentDays, FIRST_DAY, FIRST_DAY.plusDays(9)));
+        assertEquals(List.of(Pair.of(FIRST_DAY, FIRST_DAY.plusDays(1))),
+                PriceSegmentCache.findMissingRanges(Set.of(), FIRST_DAY, FIRST_DAY.plusDays(1)));
+        assertTrue(PriceSegmentCache.findMissingRanges(presentDays, FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(3)).isEmpty());
+    }
+
+    @Test
+    public void collectsCachedDaysByDeliveryDay() {
+        PriceSegmentCache cache = new PriceSegmentCache(new CaffeineCacheManager(PriceSegmentCache.CACHE_NAME));
+        // The summer day starts at 22:00 UTC the day before, the winter day at 23:00 UTC
+        PriceSeries summerDay = createDay(FIRST_DAY);
+        PriceSeries winterDay = createDay(FIRST_DAY.plusDays(40));
+        cache.put(AREA_CODE, summerDay);
+        cache.put(AREA_CODE, winterDay);
+
+        Map<LocalDate, PriceSeries> days = cache.getDays(AREA_CODE, FIRST_DAY, FIRST_DAY.plusDays(40));
+
+        assertEquals(List.of(FIRST_DAY, FIRST_DAY.plusDays(40)), List.copyOf(days.keySet()));
+        assertEquals(summerDay, days.get(FIRST_DAY));
+        assertEquals(winterDay, days.get(FIRST_DAY.plusDays(40)));
+        assertTrue(cache.getDays("10YDK-2--------M", FIRST_DAY, FIRST_DAY.plusDays(40)).isEmpty());
+    }
+}
@@ -0,0 +1,80 @@
+package dk.systemedz.entsoe.marketdataservice.service;
+
+import dk.systemedz.entsoe.marketdataservice.domain.models.RollingStatistic;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static dk.systemedz.entsoe.marketdataservice.fixtures.PriceSeriesFixtures.createDay;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RollingStatisticsIndexTest {
+
+    private static final String AREA_CODE = "10YDK-1--------W";
+    private static final LocalDate FIRST_DAY = LocalDate.of(2022, 10, 1);
+
+    @Test
+    public void calculatesRollingStatisticsOfEveryDay() {
+        RollingStatisticsIndex index = new RollingStatisticsIndex();
+        // Every hour of day n costs n
+        index.putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 1), createDay(FIRST_DAY.plusDays(1), 2),
+                createDay(FIRST_DAY.plusDays(2), 3), createDay(FIRST_DAY.plusDays(3), 4)));
+
+        List<RollingStatistic> statistics = index.getRollingStatistics(AREA_CODE, FIRST_DAY, FIRST_DAY.plusDays(3), 2);
+
+        assertEquals(4, statistics.size());
+        // The window of the first day only has one day
+        assertEquals(24, statistics.get(0).getCount());
+        assertEquals(1.0, statistics.get(0).getMean());
+        assertEquals(0.0, statistics.get(0).getStandardDeviation());
+
+        RollingStatistic last = statistics.get(3);
+        assertEquals(FIRST_DAY.plusDays(3), last.getDeliveryDay());
+        assertEquals(48, last.getCount());
+        assertEquals(3.5, last.getMean());
+        assertEquals(0.5, last.getStandardDeviation(), 1e-9);
+        assertEquals(3.0, last.getMin());
+        assertEquals(4.0, last.getMax());
+    }
+
+    @Test
+    public void replacesCorrectedDays() {
+        RollingStatisticsIndex index = new RollingStatisticsIndex();
+        index.putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 1), createDay(FIRST_DAY.plusDays(1), 2)));
+        index.getRollingStatistics(AREA_CODE, FIRST_DAY, FIRST_DAY.plusDays(1), 2);
+        index.putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 10)));
+
+        RollingStatistic statistic = index.getRollingStatistics(AREA_CODE, FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(1), 2).get(0);
+
+        assertEquals(6.0, statistic.getMean());
+        assertEquals(10.0, statistic.getMax());
+        assertTrue(index.getRollingStatistics(AREA_CODE, FIRST_DAY.minusDays(5), FIRST_DAY.minusDays(1), 2).isEmpty());
+    }
+
+    @Test
+    public void calculatesWindowsOverMissingDays() {
+        RollingStatisticsIndex index = new RollingStatisticsIndex();
+        // Out of order, and the third and fourth day are missing
+        index.putAll(AREA_CODE, List.of(createDay(FIRST_DAY.plusDays(1), 2)));
+        index.putAll(AREA_CODE, List.of(createDay(FIRST_DAY, 1)));
+        index.putAll(AREA_CODE, List.of(createDay(FIRST_DAY.plusDays(4), 4)));
+
+        RollingStatistic statistic = index.getRollingStatistics(AREA_CODE, FIRST_DAY.plusDays(4), FIRST_DAY.plusDays(4), 5).get(0);
+
+        assertEquals(72, statistic.getCount());
+        assertEquals(7.0 / 3, statistic.getMean(), 1e-9);
+        assertEquals(1.0, statistic.getMin());
+        assertEquals(4.0, statistic.getMax());
+
+        List<RollingStatistic> statistics = index.getRollingStatistics(AREA_CODE, FIRST_DAY, FIRST_DAY.plusDays(4), 2);
+        // The window ending on the fourth day has no prices
+        assertEquals(List.of(FIRST_DAY, FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(4)),
+                statistics.stream().map(RollingStatistic::getDeliveryDay).toList());
+        assertEquals(48, statistics.get(1).getCount());
+        assertEquals(1.5, statistics.get(1).getMean());
+        assertEquals(24, statistics.get(3).getCount());
+        assertEquals(4.0, statistics.get(3).getMean());
+    }
+}
@@ -0,0 +1,58 @@
+package dk.systemedz.entsoe.marketdataservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DateTimeUtilsTest {
+
+    @Test
+    public void formatsEpochSecondsLikeIsoLocalDateTime() {
+        char[] buffer = new char[DateTimeUtils.ISO_DATE_TIME_LENGTH];
+        // Every hour from 1900 to 2100, which covers the leap days of 1900 (none), 2000 and 2100 (none)
+        long first = LocalDateTime.of(1900, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        long last = LocalDateTime.of(2101, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        for (long epochSecond = first; epochSecond < last; epochSecond += 3599) {
+            String expected = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            assertEquals(expected, new String(buffer, 0, DateTimeUtils.formatIsoDateTime(epochSecond, buffer, 0)));
+        }
+    }
+
+    @Test
+    public void keepsFractionsWhenFormattingLocalDateTime() {
+        assertEquals("2022-10-15T22:00:00", DateTimeUtils.formatIsoDateTime(LocalDateTime.of(2022, 10, 15, 22, 0)));
+        assertEquals("2022-10-15T22:00:00.5", DateTimeUtils.formatIsoDateTime(LocalDateTime.of(2022, 10, 15, 22, 0, 0, 500_000_000)));
+    }
+
+    @Test
+    public void parsesEntsoeTimestampsToEpochSeconds() {
+        for (LocalDateTime dateTime = LocalDateTime.of(2015, 1, 1, 0, 0); dateTime.getYear() < 2030; dateTime = dateTime.plusMinutes(397)) {
+            String entsoeDateTime = dateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm'Z'"));
+            assertEquals(dateTime.toEpochSecond(ZoneOffset.UTC), DateTimeUtils.parseEntsoeEpochSecond(entsoeDateTime));
+        }
+        assertEquals(LocalDateTime.of(2022, 10, 15, 22, 0).toEpochSecond(ZoneOffset.UTC), DateTimeUtils.parseEntsoeEpochSecond(" 2022-10-15T22:00Z\n"));
+    }
+
+    @Test
+    public void rejectsInvalidEntsoeTimestamps() {
+        assertThrows(DateTimeParseException.class, () -> DateTimeUtils.parseEntsoeEpochSecond("2022-02-29T22:00Z"));
+        assertThrows(DateTimeParseException.class, () -> DateTimeUtils.parseEntsoeEpochSecond("2022-10-15T24:00Z"));
+        assertThrows(DateTimeParseException.class, () -> DateTimeUtils.parseEntsoeEpochSecond("2022-1O-15T22:00Z"));
+    }
+
+    @Test
+    public void publishesTomorrowFromTheDayAheadPublicationTime() {
+        LocalDate today = LocalDate.of(2022, 7, 1);
+        assertEquals(today, DateTimeUtils.getLastPublishedDay(today.atTime(12, 44).atZone(DateTimeUtils.MARKET_ZONE)));
+        assertEquals(today.plusDays(1), DateTimeUtils.getLastPublishedDay(today.atTime(12, 45).atZone(DateTimeUtils.MARKET_ZONE)));
+        // 23:30 UTC is already the next morning in CEST, before that day's publication
+        assertEquals(today.plusDays(1), DateTimeUtils.getLastPublishedDay(today.atTime(23, 30).atZone(ZoneOffset.UTC)));
+    }
+}